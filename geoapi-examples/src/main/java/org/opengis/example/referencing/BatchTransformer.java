@@ -0,0 +1,245 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.List;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Transforms large arrays of coordinates by splitting them in ranges of points transformed in parallel.
+ * Each range is given to the {@link MathTransform#transform(double[], int, double[], int, int)} method
+ * (or the {@code float[]} variant) in a separate task executed by a {@link ForkJoinPool}.
+ * The ranges are executed in parallel only if all the following conditions are met:
+ *
+ * <ul>
+ *   <li>The number of points is at least twice the {@linkplain #getThreshold() threshold}.</li>
+ *   <li>The transform is {@linkplain #isThreadSafe(MathTransform) thread-safe}.</li>
+ *   <li>The ranges are independent: the source and target regions do not overlap, or the transform is
+ *       applied in-place (same array, same offset and same number of source and target dimensions).</li>
+ * </ul>
+ *
+ * Otherwise the points are transformed sequentially in the caller thread, as a direct call to the
+ * {@code MathTransform.transform(…)} method would do.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public class BatchTransformer {
+    /**
+     * The default minimal number of points in a range.
+     */
+    public static final int DEFAULT_THRESHOLD = 8192;
+
+    /**
+     * The pool where to execute the tasks.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * The minimal number of points in a range.
+     */
+    private final int threshold;
+
+    /**
+     * A transform operation on a range of points, to be executed by a task.
+     */
+    @FunctionalInterface
+    private interface Range {
+        void transform(int srcOff, int dstOff, int numPts) throws TransformException;
+    }
+
+    /**
+     * Creates a new batch transformer using the {@linkplain ForkJoinPool#commonPool() common pool}
+     * and the {@linkplain #DEFAULT_THRESHOLD default threshold}.
+     */
+    public BatchTransformer() {
+        this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * Creates a new batch transformer using the given pool and threshold.
+     *
+     * @param pool       the pool where to execute the tasks.
+     * @param threshold  the minimal number of points in a range.
+     * @throws IllegalArgumentException if the given threshold is not strictly positive.
+     */
+    public BatchTransformer(final ForkJoinPool pool, final int threshold) {
+        Objects.requireNonNull(pool, "pool");
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("The threshold shall be strictly positive.");
+        }
+        this.pool      = pool;
+        this.threshold = threshold;
+    }
+
+    /**
+     * Returns the minimal number of points in a range. Below twice this threshold,
+     * the points are transformed sequentially in the caller thread.
+     *
+     * @return the minimal number of points in a range.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Returns {@code true} if the given transform can be invoked concurrently from many threads.
+     * The default implementation returns {@code true} for the linear transforms of this package,
+     * and for concatenated or pass-through transforms built only from such transforms.
+     * Subclasses can override this method for accepting their own transform implementations.
+     *
+     * <p>Note that {@link AffineTransform2D} is mutable. This class assumes that the transform
+     * is not modified during the execution of a {@code transform(…)} method.</p>
+     *
+     * @param  transform  the transform to test.
+     * @return whether the given transform can be invoked concurrently.
+     */
+    protected boolean isThreadSafe(final MathTransform transform) {
+        if (transform instanceof AffineTransform2D || transform instanceof ProjectiveTransform) {
+            return true;
+        }
+        if (transform instanceof PassThroughTransform) {
+            return isThreadSafe(((PassThroughTransform) transform).subTransform);
+        }
+        if (transform instanceof ConcatenatedTransform) {
+            for (final MathTransform step : ((ConcatenatedTransform) transform).getSteps()) {
+                if (!isThreadSafe(step)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of tasks in which to split the transformation, or 1 for a sequential execution.
+     *
+     * @param  transform  the transform to apply.
+     * @param  sameArray  whether the source and target arrays are the same array.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstOff     the offset to the location of the first transformed point in the destination array.
+     * @param  numPts     the number of points to transform.
+     * @return the number of tasks.
+     */
+    private int numTasks(final MathTransform transform, final boolean sameArray,
+                         final int srcOff, final int dstOff, final int numPts)
+    {
+        final long n = Math.min(numPts / threshold, pool.getParallelism() * 4L);
+        if (n <= 1 || !isThreadSafe(transform)) {
+            return 1;
+        }
+        if (sameArray) {
+            final int srcDim = transform.getSourceDimensions();
+            final int dstDim = transform.getTargetDimensions();
+            if (srcOff != dstOff || srcDim != dstDim) {
+                if (srcOff + (long) numPts * srcDim > dstOff &&
+                    dstOff + (long) numPts * dstDim > srcOff)
+                {
+                    return 1;           // Overlapping regions can not be split in independent ranges.
+                }
+            }
+        }
+        return (int) n;
+    }
+
+    /**
+     * Splits the given number of points in the given number of ranges and executes them in parallel.
+     * This method returns only after all tasks completed.
+     */
+    private void execute(final int numTasks, final MathTransform transform,
+            final int srcOff, final int dstOff, final int numPts, final Range range)
+            throws TransformException
+    {
+        final int srcDim = transform.getSourceDimensions();
+        final int dstDim = transform.getTargetDimensions();
+        final List<Callable<Void>> tasks = new ArrayList<>(numTasks);
+        for (int i=0; i<numTasks; i++) {
+            final int lower = (int) ((long) numPts *  i    / numTasks);
+            final int upper = (int) ((long) numPts * (i+1) / numTasks);
+            tasks.add(() -> {
+                range.transform(srcOff + lower*srcDim, dstOff + lower*dstDim, upper - lower);
+                return null;
+            });
+        }
+        final List<Future<Void>> results = pool.invokeAll(tasks);
+        for (final Future<Void> result : results) {
+            try {
+                result.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransformException("Interrupted while transforming coordinates.", e);
+            } catch (ExecutionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof TransformException) throw (TransformException) cause;
+                if (cause instanceof RuntimeException)   throw (RuntimeException)   cause;
+                if (cause instanceof Error)              throw (Error)              cause;
+                throw new TransformException(cause.getMessage(), cause);
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values, in parallel if possible.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see MathTransform#transform(double[], int, double[], int, int)
+     */
+    public void transform(final MathTransform transform, final double[] srcPts, final int srcOff,
+            final double[] dstPts, final int dstOff, final int numPts) throws TransformException
+    {
+        final int numTasks = numTasks(transform, srcPts == dstPts, srcOff, dstOff, numPts);
+        if (numTasks <= 1) {
+            transform.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            execute(numTasks, transform, srcOff, dstOff, numPts,
+                    (so, dso, n) -> transform.transform(srcPts, so, dstPts, dso, n));
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values, in parallel if possible.
+     *
+     * @param  transform  the transform to apply.
+     * @param  srcPts     the array containing the source point coordinates.
+     * @param  srcOff     the offset to the first point to be transformed in the source array.
+     * @param  dstPts     the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff     the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts     the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     *
+     * @see MathTransform#transform(float[], int, float[], int, int)
+     */
+    public void transform(final MathTransform transform, final float[] srcPts, final int srcOff,
+            final float[] dstPts, final int dstOff, final int numPts) throws TransformException
+    {
+        final int numTasks = numTasks(transform, srcPts == dstPts, srcOff, dstOff, numPts);
+        if (numTasks <= 1) {
+            transform.transform(srcPts, srcOff, dstPts, dstOff, numPts);
+        } else {
+            execute(numTasks, transform, srcOff, dstOff, numPts,
+                    (so, dso, n) -> transform.transform(srcPts, so, dstPts, dso, n));
+        }
+    }
+}
@@ -0,0 +1,452 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import org.opengis.util.FactoryException;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+import org.opengis.example.geometry.SimpleDirectPosition;
+
+
+/**
+ * A {@link MathTransform} which applies a chain of transforms in a single pass over the coordinate arrays.
+ * Instances of this class are created by {@link SimpleTransformFactory#createConcatenatedTransform(MathTransform,
+ * MathTransform)}, which multiplies consecutive {@link ProjectiveTransform} and {@link AffineTransform2D} steps
+ * in a single matrix before to create this transform. Consequently a chain of transforms has never two
+ * consecutive linear steps, and a chain of linear transforms is not a {@code ConcatenatedTransform} at all.
+ *
+ * <p>Points are processed in chunks of at most {@value #CHUNK_SIZE} points. The first step reads
+ * directly from the source array, the last step writes directly in the destination array, and the
+ * intermediate steps alternate between two buffers allocated once per call.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ *
+ * @see SimpleTransformFactory#createConcatenatedTransform(MathTransform, MathTransform)
+ */
+public class ConcatenatedTransform extends SimpleTransform {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = 2967012405768346376L;
+
+    /**
+     * Maximal number of points to transform in a single call to each step.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * The transforms to apply, in order. This array contains at least two elements.
+     */
+    private final MathTransform[] steps;
+
+    /**
+     * The maximal number of dimensions of intermediate coordinates.
+     */
+    private final int maxDim;
+
+    /**
+     * The inverse of this transform, computed when first needed.
+     */
+    private transient ConcatenatedTransform inverse;
+
+    /**
+     * Creates a new transform applying the given steps in order. Callers should use
+     * {@link SimpleTransformFactory#createConcatenatedTransform(MathTransform, MathTransform)}
+     * instead, which merges consecutive linear steps.
+     *
+     * @param authority  organization responsible for definition of the name, or {@code null}.
+     * @param name       the name of the new transform.
+     * @param steps      the transforms to apply, in order. This array is not cloned.
+     */
+    ConcatenatedTransform(final Citation authority, final String name, final MathTransform... steps) {
+        super(authority, name, getSourceCRS(steps[0]), getTargetCRS(steps[steps.length - 1]));
+        this.steps = steps;
+        int max = 0;
+        for (int i=1; i<steps.length; i++) {
+            max = Math.max(max, steps[i].getSourceDimensions());
+        }
+        maxDim = max;
+    }
+
+    /**
+     * Returns the source CRS of the given transform if it is a coordinate operation, or {@code null} otherwise.
+     */
+    private static CoordinateReferenceSystem getSourceCRS(final MathTransform tr) {
+        return (tr instanceof CoordinateOperation) ? ((CoordinateOperation) tr).getSourceCRS() : null;
+    }
+
+    /**
+     * Returns the target CRS of the given transform if it is a coordinate operation, or {@code null} otherwise.
+     */
+    private static CoordinateReferenceSystem getTargetCRS(final MathTransform tr) {
+        return (tr instanceof CoordinateOperation) ? ((CoordinateOperation) tr).getTargetCRS() : null;
+    }
+
+    /**
+     * Returns the concatenation of the two given transforms. Steps which are themselves concatenated
+     * transforms are expanded, linear identity steps are omitted and consecutive linear steps are
+     * multiplied together. The linear steps are created by {@link SimpleTransformFactory#createAffineTransform(Matrix)}.
+     *
+     * @param  factory  the factory to use for creating the merged linear steps.
+     * @param  tr1      the first transform to apply.
+     * @param  tr2      the second transform to apply.
+     * @return the concatenated transform.
+     * @throws FactoryException if the dimensions do not match or a linear step can not be created.
+     */
+    static MathTransform create(final SimpleTransformFactory factory, final MathTransform tr1, final MathTransform tr2)
+            throws FactoryException
+    {
+        if (tr1.getTargetDimensions() != tr2.getSourceDimensions()) {
+            throw new FactoryException(new MismatchedDimensionException("The target dimension of the first transform ("
+                    + tr1.getTargetDimensions() + ") does not match the source dimension of the second one ("
+                    + tr2.getSourceDimensions() + ")."));
+        }
+        final List<MathTransform> list = new ArrayList<>();
+        addSteps(factory, list, tr1);
+        addSteps(factory, list, tr2);
+        switch (list.size()) {
+            case 0: {
+                final SimpleMatrix identity = new SimpleMatrix(tr1.getSourceDimensions() + 1, tr1.getSourceDimensions() + 1);
+                identity.setIdentity();
+                return factory.createAffineTransform(identity);
+            }
+            case 1: {
+                return list.get(0);
+            }
+            default: {
+                return new ConcatenatedTransform(factory.getVendor(), "Concatenated transform",
+                        list.toArray(new MathTransform[list.size()]));
+            }
+        }
+    }
+
+    /**
+     * Appends the steps of the given transform to the given list, merging linear transforms.
+     */
+    private static void addSteps(final SimpleTransformFactory factory, final List<MathTransform> list,
+            final MathTransform tr) throws FactoryException
+    {
+        if (tr instanceof ConcatenatedTransform) {
+            for (final MathTransform step : ((ConcatenatedTransform) tr).steps) {
+                addSteps(factory, list, step);
+            }
+            return;
+        }
+        final SimpleMatrix matrix = getMatrix(tr);
+        if (matrix != null) {
+            final int last = list.size() - 1;
+            if (last >= 0) {
+                final SimpleMatrix previous = getMatrix(list.get(last));
+                if (previous != null) {
+                    final SimpleMatrix product = new SimpleMatrix(matrix.getNumRow(), previous.getNumCol());
+                    product.mul(matrix, previous);
+                    list.remove(last);
+                    if (!product.isIdentity()) {
+                        list.add(factory.createAffineTransform(product));
+                    }
+                    return;
+                }
+            }
+            if (matrix.isIdentity()) {
+                return;
+            }
+        }
+        list.add(tr);
+    }
+
+    /**
+     * Returns the matrix of the given transform if it is linear, or {@code null} otherwise.
+     * This method recognizes only the {@link ProjectiveTransform} and {@link AffineTransform2D} classes.
+     *
+     * @param  tr  the transform for which to get the matrix.
+     * @return the matrix of the given transform, or {@code null} if none.
+     */
+    static SimpleMatrix getMatrix(final MathTransform tr) {
+        if (tr instanceof ProjectiveTransform) {
+            return ((ProjectiveTransform) tr).matrix;
+        }
+        if (tr instanceof AffineTransform2D) {
+            final AffineTransform2D at = (AffineTransform2D) tr;
+            final SimpleMatrix matrix = new SimpleMatrix(3, 3);
+            matrix.setRow(0, new double[] {at.getScaleX(), at.getShearX(), at.getTranslateX()});
+            matrix.setRow(1, new double[] {at.getShearY(), at.getScaleY(), at.getTranslateY()});
+            matrix.setRow(2, new double[] {0, 0, 1});
+            return matrix;
+        }
+        return null;
+    }
+
+    /**
+     * Gets the dimension of input points, which is the source dimension of the first step.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return steps[0].getSourceDimensions();
+    }
+
+    /**
+     * Gets the dimension of target points, which is the target dimension of the last step.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return steps[steps.length - 1].getTargetDimensions();
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} by applying all steps in order.
+     *
+     * @param  ptSrc  the specified coordinate point to be transformed.
+     * @param  ptDst  the specified coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Override
+    public DirectPosition transform(DirectPosition ptSrc, final DirectPosition ptDst) throws TransformException {
+        for (int i=0; i<steps.length - 1; i++) {
+            ptSrc = steps[i].transform(ptSrc, null);
+        }
+        return steps[steps.length - 1].transform(ptSrc, ptDst);
+    }
+
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     * If the source and destination arrays are the same array, the chunks are processed in the direction
+     * given by {@link #direction(int, int, int, int, int)}. This is safe because each chunk is fully read
+     * by the first step before the last step writes any target coordinate of that chunk. If the overlapping
+     * regions can not be processed safely in either direction, they are split in parts by
+     * {@link #transformOverlapping transformOverlapping(…)}.
+     */
+    private void transform(final double[] srcDbl, final float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        boolean backward = false;
+        if (srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) {
+            switch (direction(srcOff, srcDim, dstOff, dstDim, numPts)) {
+                case +1: break;
+                case -1: backward = true; break;
+                default: {
+                    if (srcDbl != null) {
+                        transformOverlapping(srcDbl, srcOff, srcDim, dstOff, dstDim, numPts,
+                                (src, so, dst, dso, n) -> transform(src, null, so, dst, null, dso, n));
+                    } else {
+                        transformOverlapping(srcFlt, srcOff, srcDim, dstOff, dstDim, numPts,
+                                (src, so, dst, dso, n) -> transform(null, src, so, null, dst, dso, n));
+                    }
+                    return;
+                }
+            }
+        }
+        final int bufferSize = Math.min(numPts, CHUNK_SIZE) * maxDim;
+        double[] buffer = new double[bufferSize];
+        double[] spare  = (steps.length > 2) ? new double[bufferSize] : null;
+        final int last  = steps.length - 1;
+        int done = 0;
+        while (done < numPts) {
+            final int n = Math.min(numPts - done, CHUNK_SIZE);
+            final int p = backward ? numPts - done - n : done;        // Index of the first point in the chunk.
+            final int s = srcOff + p * srcDim;
+            final int d = dstOff + p * dstDim;
+            if (srcDbl != null) {
+                steps[0].transform(srcDbl, s, buffer, 0, n);
+            } else {
+                steps[0].transform(srcFlt, s, buffer, 0, n);
+            }
+            for (int i=1; i<last; i++) {
+                steps[i].transform(buffer, 0, spare, 0, n);
+                final double[] swap = buffer;
+                buffer = spare;
+                spare  = swap;
+            }
+            if (dstDbl != null) {
+                steps[last].transform(buffer, 0, dstDbl, d, n);
+            } else {
+                steps[last].transform(buffer, 0, dstFlt, d, n);
+            }
+            done += n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. This is the product of the derivatives
+     * of all steps, each step being evaluated at the point transformed by the previous steps.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative can not be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(DirectPosition point) throws TransformException {
+        SimpleMatrix product = null;
+        for (int i=0; i<steps.length; i++) {
+            final MathTransform step = steps[i];
+            final SimpleMatrix matrix = new SimpleMatrix(step.derivative(point));
+            if (product == null) {
+                product = matrix;
+            } else {
+                final SimpleMatrix next = new SimpleMatrix(matrix.getNumRow(), product.getNumCol());
+                next.mul(matrix, product);
+                product = next;
+            }
+            if (i != steps.length - 1) {
+                point = step.transform(point, new SimpleDirectPosition(step.getTargetDimensions()));
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Returns the inverse of this transform, which is the inverse of all steps in reverse order.
+     *
+     * @throws NoninvertibleTransformException if a step is not invertible.
+     */
+    @Override
+    public synchronized ConcatenatedTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            final MathTransform[] inverses = new MathTransform[steps.length];
+            for (int i=0; i<steps.length; i++) {
+                inverses[steps.length - 1 - i] = steps[i].inverse();
+            }
+            inverse = new ConcatenatedTransform(authority, "Inverse of " + code, inverses);
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns the transforms applied by this concatenated transform, in order.
+     *
+     * @return the steps of this transform (never empty).
+     */
+    public List<MathTransform> getSteps() {
+        return Collections.unmodifiableList(Arrays.asList(steps));
+    }
+
+    /**
+     * Returns {@code true} if all steps are identity transforms.
+     * This is usually not the case, since linear identity steps are omitted at creation time.
+     */
+    @Override
+    public boolean isIdentity() {
+        for (final MathTransform step : steps) {
+            if (!step.isIdentity()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + 31 * Arrays.hashCode(steps);
+    }
+
+    /**
+     * Compares this transform with the given object for equality.
+     *
+     * @param  object  the object to compare with this transform.
+     * @return {@code true} if the given object is equals to this object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            return Arrays.equals(steps, ((ConcatenatedTransform) object).steps);
+        }
+        return false;
+    }
+}
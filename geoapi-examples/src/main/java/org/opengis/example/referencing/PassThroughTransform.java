@@ -0,0 +1,424 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import org.opengis.util.FactoryException;
+import org.opengis.metadata.citation.Citation;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+import org.opengis.example.geometry.SimpleDirectPosition;
+
+
+/**
+ * A {@link MathTransform} which applies a sub-transform on a range of coordinates and copies the
+ * other coordinates unchanged. This is typically used for applying a two-dimensional transform on
+ * the horizontal coordinates of a three- or four-dimensional CRS. Instances of this class are created
+ * by {@link SimpleTransformFactory#createPassThroughTransform(int, MathTransform, int)}, which creates
+ * a linear transform of larger dimension instead if the sub-transform is linear.
+ *
+ * <p>Points are processed in chunks of at most {@value #CHUNK_SIZE} points: the coordinates of each chunk
+ * given to the sub-transform are gathered in a buffer, transformed in a single call, then scattered in the
+ * destination array. If the transform is applied in-place (same array and same offset for the source and
+ * the target points) and the sub-transform preserves the number of dimensions, then only the affected
+ * coordinates are written: the pass-through coordinates are left untouched.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ *
+ * @see SimpleTransformFactory#createPassThroughTransform(int, MathTransform, int)
+ */
+public class PassThroughTransform extends SimpleTransform {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = -4823915768027409731L;
+
+    /**
+     * Maximal number of points to give in a single call to the sub-transform.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * Index of the first coordinate affected by the {@linkplain #subTransform sub-transform}.
+     */
+    protected final int firstAffectedCoordinate;
+
+    /**
+     * The transform to apply on the affected coordinates.
+     */
+    protected final MathTransform subTransform;
+
+    /**
+     * Number of coordinates after the ones affected by the {@linkplain #subTransform sub-transform}.
+     */
+    protected final int numTrailingCoordinates;
+
+    /**
+     * The inverse of this transform, computed when first needed.
+     */
+    private transient PassThroughTransform inverse;
+
+    /**
+     * Creates a new pass-through transform.
+     *
+     * @param authority                organization responsible for definition of the name, or {@code null}.
+     * @param name                     the name of the new transform.
+     * @param firstAffectedCoordinate  index of the first coordinate affected by the sub-transform.
+     * @param subTransform             the transform to apply on the affected coordinates.
+     * @param numTrailingCoordinates   number of coordinates after the ones affected by the sub-transform.
+     * @throws IllegalArgumentException if a number of coordinates is negative.
+     */
+    public PassThroughTransform(final Citation authority, final String name, final int firstAffectedCoordinate,
+            final MathTransform subTransform, final int numTrailingCoordinates)
+    {
+        super(authority, name, null, null);
+        if (firstAffectedCoordinate < 0 || numTrailingCoordinates < 0) {
+            throw new IllegalArgumentException("The number of pass-through coordinates can not be negative.");
+        }
+        this.firstAffectedCoordinate = firstAffectedCoordinate;
+        this.subTransform            = subTransform;
+        this.numTrailingCoordinates  = numTrailingCoordinates;
+    }
+
+    /**
+     * Creates a transform which applies the given sub-transform on a range of coordinates.
+     * If the sub-transform is linear, then this method returns a linear transform of larger
+     * dimension created by {@link SimpleTransformFactory#createAffineTransform(Matrix)}.
+     *
+     * @param  factory                  the factory to use for creating linear transforms.
+     * @param  firstAffectedCoordinate  index of the first coordinate affected by the sub-transform.
+     * @param  subTransform             the transform to apply on the affected coordinates.
+     * @param  numTrailingCoordinates   number of coordinates after the ones affected by the sub-transform.
+     * @return the pass-through transform.
+     * @throws FactoryException if the linear transform can not be created.
+     */
+    static MathTransform create(final SimpleTransformFactory factory, final int firstAffectedCoordinate,
+            final MathTransform subTransform, final int numTrailingCoordinates) throws FactoryException
+    {
+        if (firstAffectedCoordinate == 0 && numTrailingCoordinates == 0) {
+            return subTransform;
+        }
+        final SimpleMatrix sub = ConcatenatedTransform.getMatrix(subTransform);
+        if (sub != null && firstAffectedCoordinate >= 0 && numTrailingCoordinates >= 0) {
+            final int passThrough = firstAffectedCoordinate + numTrailingCoordinates;
+            final int subSrc = sub.getNumCol() - 1;
+            final int subTgt = sub.getNumRow() - 1;
+            final SimpleMatrix matrix = new SimpleMatrix(subTgt + passThrough + 1, subSrc + passThrough + 1);
+            matrix.setZero();
+            for (int i=0; i<firstAffectedCoordinate; i++) {
+                matrix.setElement(i, i, 1);
+            }
+            for (int i=0; i<numTrailingCoordinates; i++) {
+                matrix.setElement(firstAffectedCoordinate + subTgt + i, firstAffectedCoordinate + subSrc + i, 1);
+            }
+            for (int j=0; j<=subTgt; j++) {
+                final int row = (j != subTgt) ? firstAffectedCoordinate + j : matrix.getNumRow() - 1;
+                for (int i=0; i<subSrc; i++) {
+                    matrix.setElement(row, firstAffectedCoordinate + i, sub.getElement(j, i));
+                }
+                matrix.setElement(row, matrix.getNumCol() - 1, sub.getElement(j, subSrc));
+            }
+            return factory.createAffineTransform(matrix);
+        }
+        try {
+            return new PassThroughTransform(factory.getVendor(), "Pass through transform",
+                    firstAffectedCoordinate, subTransform, numTrailingCoordinates);
+        } catch (IllegalArgumentException e) {
+            throw new FactoryException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Gets the dimension of input points.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return firstAffectedCoordinate + subTransform.getSourceDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Gets the dimension of target points.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return firstAffectedCoordinate + subTransform.getTargetDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc  the specified coordinate point to be transformed.
+     * @param  ptDst  the specified coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, DirectPosition ptDst) throws TransformException {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        if (ptSrc.getDimension() != srcDim) {
+            throw new MismatchedDimensionException("Wrong number of source dimensions.");
+        }
+        if (ptDst != null) {
+            if (ptDst.getDimension() != dstDim) {
+                throw new MismatchedDimensionException("Wrong number of target dimensions.");
+            }
+        } else {
+            ptDst = new SimpleDirectPosition(dstDim);
+        }
+        final double[] target = new double[dstDim];
+        transform(ptSrc.getCoordinate(), 0, target, 0, 1);
+        for (int j=0; j<dstDim; j++) {
+            ptDst.setOrdinate(j, target[j]);
+        }
+        return ptDst;
+    }
+
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     */
+    private void transform(final double[] srcDbl, final float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int dstDim = getTargetDimensions();
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subDst = subTransform.getTargetDimensions();
+        final boolean sameArray = (srcDbl != null) ? srcDbl == dstDbl : srcFlt == dstFlt;
+        /*
+         * If the transform is applied in-place, only the affected coordinates need to be written.
+         * Each chunk of affected coordinates is fully read before being written, and chunks do not
+         * overlap each other, so no copy of the source array is needed.
+         */
+        final boolean inPlace = sameArray && srcOff == dstOff && subSrc == subDst;
+        if (sameArray && !inPlace && direction(srcOff, srcDim, dstOff, dstDim, numPts) != +1) {
+            if (srcDbl != null) {
+                transformOverlapping(srcDbl, srcOff, srcDim, dstOff, dstDim, numPts,
+                        (src, so, dst, dso, n) -> transform(src, null, so, dst, null, dso, n));
+            } else {
+                transformOverlapping(srcFlt, srcOff, srcDim, dstOff, dstDim, numPts,
+                        (src, so, dst, dso, n) -> transform(null, src, so, null, dst, dso, n));
+            }
+            return;
+        }
+        final int chunk = Math.min(numPts, CHUNK_SIZE);
+        final double[] buffer = new double[chunk * Math.max(subSrc, subDst)];
+        final double[] point  = inPlace ? null : new double[srcDim];
+        while (numPts > 0) {
+            final int n = Math.min(numPts, CHUNK_SIZE);
+            /*
+             * Gather the coordinates to give to the sub-transform, then transform them in one call.
+             */
+            for (int k=0, p=0; p<n; p++) {
+                int s = srcOff + p*srcDim + firstAffectedCoordinate;
+                for (int i=0; i<subSrc; i++) {
+                    buffer[k++] = (srcDbl != null) ? srcDbl[s++] : srcFlt[s++];
+                }
+            }
+            subTransform.transform(buffer, 0, buffer, 0, n);
+            if (inPlace) {
+                for (int k=0, p=0; p<n; p++) {
+                    int d = dstOff + p*dstDim + firstAffectedCoordinate;
+                    for (int i=0; i<subDst; i++) {
+                        if (dstDbl != null) {
+                            dstDbl[d++] = buffer[k++];
+                        } else {
+                            dstFlt[d++] = (float) buffer[k++];
+                        }
+                    }
+                }
+                srcOff += n * srcDim;
+                dstOff += n * dstDim;
+            } else {
+                /*
+                 * Write the leading coordinates, the transformed coordinates and the trailing coordinates
+                 * of each point. The source point is fully read before its target point is written.
+                 */
+                for (int k=0, p=0; p<n; p++) {
+                    for (int i=0; i<srcDim; i++) {
+                        point[i] = (srcDbl != null) ? srcDbl[srcOff++] : srcFlt[srcOff++];
+                    }
+                    for (int i=0; i<dstDim; i++) {
+                        final double value;
+                        if (i < firstAffectedCoordinate) {
+                            value = point[i];
+                        } else if (i < firstAffectedCoordinate + subDst) {
+                            value = buffer[k++];
+                        } else {
+                            value = point[i + subSrc - subDst];
+                        }
+                        if (dstDbl != null) {
+                            dstDbl[dstOff++] = value;
+                        } else {
+                            dstFlt[dstOff++] = (float) value;
+                        }
+                    }
+                }
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. The derivative of the sub-transform
+     * is inserted in an identity matrix for the pass-through coordinates.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative can not be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        final int subSrc = subTransform.getSourceDimensions();
+        final SimpleDirectPosition subPoint = new SimpleDirectPosition(subSrc);
+        for (int i=0; i<subSrc; i++) {
+            subPoint.setOrdinate(i, point.getOrdinate(firstAffectedCoordinate + i));
+        }
+        final Matrix sub = subTransform.derivative(subPoint);
+        final int subDst = sub.getNumRow();
+        final SimpleMatrix matrix = new SimpleMatrix(getTargetDimensions(), getSourceDimensions());
+        matrix.setZero();
+        for (int i=0; i<firstAffectedCoordinate; i++) {
+            matrix.setElement(i, i, 1);
+        }
+        for (int i=0; i<numTrailingCoordinates; i++) {
+            matrix.setElement(firstAffectedCoordinate + subDst + i, firstAffectedCoordinate + subSrc + i, 1);
+        }
+        for (int j=0; j<subDst; j++) {
+            for (int i=0; i<subSrc; i++) {
+                matrix.setElement(firstAffectedCoordinate + j, firstAffectedCoordinate + i, sub.getElement(j, i));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the inverse of this transform, which applies the inverse of the sub-transform.
+     *
+     * @throws NoninvertibleTransformException if the sub-transform is not invertible.
+     */
+    @Override
+    public synchronized PassThroughTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            inverse = new PassThroughTransform(authority, "Inverse of " + code,
+                    firstAffectedCoordinate, subTransform.inverse(), numTrailingCoordinates);
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code true} if the sub-transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        return subTransform.isIdentity();
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return super.hashCode() + 31 * (subTransform.hashCode() + 31 * (firstAffectedCoordinate + 31 * numTrailingCoordinates));
+    }
+
+    /**
+     * Compares this transform with the given object for equality.
+     *
+     * @param  object  the object to compare with this transform.
+     * @return {@code true} if the given object is equals to this object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (super.equals(object)) {
+            final PassThroughTransform other = (PassThroughTransform) object;
+            return firstAffectedCoordinate == other.firstAffectedCoordinate
+                && numTrailingCoordinates  == other.numTrailingCoordinates
+                && subTransform.equals(other.subTransform);
+        }
+        return false;
+    }
+}
@@ -8,7 +8,6 @@
 package org.opengis.example.referencing;
 
 import java.util.Objects;
-import javax.vecmath.GMatrix;
 
 import org.opengis.metadata.citation.Citation;
 import org.opengis.geometry.DirectPosition;
@@ -34,9 +33,10 @@ import org.opengis.example.geometry.SimpleDirectPosition;
  * </ul>
  *
  * <b>Performance note:</b>
- * This implementation is known to be slow. However the intent is to be pedagogic, not to be
- * efficient. Performance enhancements are left to implementers (<i>Tip:</i> override all
- * {@code transform} methods expecting array arguments).
+ * The matrix elements are copied in a flat array at construction time, and the {@code transform}
+ * methods expecting array arguments work directly on that copy without allocating objects for
+ * each point. The two- and three-dimensional affine cases are unrolled. Consequently the
+ * {@linkplain #matrix} shall not be modified after construction.
  *
  * @author  Martin Desruisseaux (Geomatys)
  * @version 3.1
@@ -60,6 +60,17 @@ public class ProjectiveTransform extends SimpleTransform {
      */
     private transient ProjectiveTransform inverse;
 
+    /**
+     * The {@linkplain #matrix} elements in row-major order, copied at construction time.
+     */
+    private final double[] elements;
+
+    /**
+     * {@code true} if the last row of the {@linkplain #matrix} is [0 … 0 1], in which case
+     * the division by <var>w</var> can be omitted.
+     */
+    private final boolean isAffine;
+
     /**
      * Creates a new operation for the given name, CRS and matrix.
      *
@@ -83,6 +94,20 @@ public class ProjectiveTransform extends SimpleTransform {
         if (targetCRS != null && targetCRS.getCoordinateSystem().getDimension() != matrix.getNumRow() - 1) {
             throw new MismatchedDimensionException("Wrong number of target dimensions.");
         }
+        final int numRow = matrix.getNumRow();
+        final int numCol = matrix.getNumCol();
+        elements = new double[numRow * numCol];
+        for (int j=0; j<numRow; j++) {
+            for (int i=0; i<numCol; i++) {
+                elements[j*numCol + i] = matrix.getElement(j, i);
+            }
+        }
+        boolean affine = true;
+        final int lastRow = (numRow - 1) * numCol;
+        for (int i=0; i<numCol; i++) {
+            affine &= (elements[lastRow + i] == (i == numCol - 1 ? 1 : 0));
+        }
+        isAffine = affine;
     }
 
     /**
@@ -133,28 +158,205 @@ public class ProjectiveTransform extends SimpleTransform {
         } else {
             ptDst = new SimpleDirectPosition(dstDim);
         }
-        //
-        // Create two matrixes of 1 column, which will
-        // represent the source and target coordinates.
-        //
-        final GMatrix source = new GMatrix(srcDim+1, 1);
-        final GMatrix target = new GMatrix(dstDim+1, 1);
-        source.setElement(srcDim, 0, 1);
-        for (int j=0; j<srcDim; j++) {
-            source.setElement(j, 0, ptSrc.getOrdinate(j));
+        final double[] source = new double[srcDim];
+        final double[] target = new double[dstDim];
+        for (int i=0; i<srcDim; i++) {
+            source[i] = ptSrc.getOrdinate(i);
         }
-        //
-        // Compute [target] = [matrix]*[source]
-        // as documented in the method javadoc.
-        //
-        target.mul(matrix, source);
-        final double w = target.getElement(dstDim, 0);          // =1 if the transform is affine.
+        transform(source, null, 0, target, null, 0, 1);
         for (int j=0; j<dstDim; j++) {
-            ptDst.setOrdinate(j, target.getElement(j, 0) / w);
+            ptDst.setOrdinate(j, target[j]);
         }
         return ptDst;
     }
 
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     * If the source and destination arrays are the same array, the points are processed in the direction
+     * given by {@link #direction(int, int, int, int, int)}. If the overlapping regions can not be processed
+     * safely in either direction, they are split in parts by {@link #transformOverlapping transformOverlapping(…)}.
+     */
+    private void transform(final double[] srcDbl, final float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+    {
+        final int srcDim = matrix.getNumCol() - 1;
+        final int dstDim = matrix.getNumRow() - 1;
+        int srcInc = srcDim;
+        int dstInc = dstDim;
+        if (srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) {
+            switch (direction(srcOff, srcDim, dstOff, dstDim, numPts)) {
+                case +1: break;
+                case -1: {
+                    srcOff += (numPts - 1) * srcDim;
+                    dstOff += (numPts - 1) * dstDim;
+                    srcInc = -srcDim;
+                    dstInc = -dstDim;
+                    break;
+                }
+                default: {
+                    if (srcDbl != null) {
+                        transformOverlapping(srcDbl, srcOff, srcDim, dstOff, dstDim, numPts,
+                                (src, so, dst, dso, n) -> transform(src, null, so, dst, null, dso, n));
+                    } else {
+                        transformOverlapping(srcFlt, srcOff, srcDim, dstOff, dstDim, numPts,
+                                (src, so, dst, dso, n) -> transform(null, src, so, null, dst, dso, n));
+                    }
+                    return;
+                }
+            }
+        }
+        final double[] m = elements;
+        if (isAffine && srcDim == 2 && dstDim == 2) {
+            final double m00 = m[0], m01 = m[1], m02 = m[2];
+            final double m10 = m[3], m11 = m[4], m12 = m[5];
+            while (--numPts >= 0) {
+                final double x, y;
+                if (srcDbl != null) {
+                    x = srcDbl[srcOff  ];
+                    y = srcDbl[srcOff+1];
+                } else {
+                    x = srcFlt[srcOff  ];
+                    y = srcFlt[srcOff+1];
+                }
+                final double u = m00*x + m01*y + m02;
+                final double v = m10*x + m11*y + m12;
+                if (dstDbl != null) {
+                    dstDbl[dstOff  ] = u;
+                    dstDbl[dstOff+1] = v;
+                } else {
+                    dstFlt[dstOff  ] = (float) u;
+                    dstFlt[dstOff+1] = (float) v;
+                }
+                srcOff += srcInc;
+                dstOff += dstInc;
+            }
+        } else if (isAffine && srcDim == 3 && dstDim == 3) {
+            final double m00 = m[0], m01 = m[ 1], m02 = m[ 2], m03 = m[ 3];
+            final double m10 = m[4], m11 = m[ 5], m12 = m[ 6], m13 = m[ 7];
+            final double m20 = m[8], m21 = m[ 9], m22 = m[10], m23 = m[11];
+            while (--numPts >= 0) {
+                final double x, y, z;
+                if (srcDbl != null) {
+                    x = srcDbl[srcOff  ];
+                    y = srcDbl[srcOff+1];
+                    z = srcDbl[srcOff+2];
+                } else {
+                    x = srcFlt[srcOff  ];
+                    y = srcFlt[srcOff+1];
+                    z = srcFlt[srcOff+2];
+                }
+                final double u = m00*x + m01*y + m02*z + m03;
+                final double v = m10*x + m11*y + m12*z + m13;
+                final double t = m20*x + m21*y + m22*z + m23;
+                if (dstDbl != null) {
+                    dstDbl[dstOff  ] = u;
+                    dstDbl[dstOff+1] = v;
+                    dstDbl[dstOff+2] = t;
+                } else {
+                    dstFlt[dstOff  ] = (float) u;
+                    dstFlt[dstOff+1] = (float) v;
+                    dstFlt[dstOff+2] = (float) t;
+                }
+                srcOff += srcInc;
+                dstOff += dstInc;
+            }
+        } else {
+            /*
+             * General case. The source point needs to be fully read before we write the target point,
+             * since the two points may overlap. The buffer is allocated once for all points.
+             */
+            final int numCol = srcDim + 1;
+            final int lastRow = dstDim * numCol;
+            final double[] point = new double[srcDim];
+            while (--numPts >= 0) {
+                for (int i=0; i<srcDim; i++) {
+                    point[i] = (srcDbl != null) ? srcDbl[srcOff + i] : srcFlt[srcOff + i];
+                }
+                double w = 1;
+                if (!isAffine) {
+                    w = m[lastRow + srcDim];
+                    for (int i=0; i<srcDim; i++) {
+                        w += m[lastRow + i] * point[i];
+                    }
+                }
+                for (int j=0; j<dstDim; j++) {
+                    final int row = j * numCol;
+                    double sum = m[row + srcDim];
+                    for (int i=0; i<srcDim; i++) {
+                        sum += m[row + i] * point[i];
+                    }
+                    sum /= w;
+                    if (dstDbl != null) {
+                        dstDbl[dstOff + j] = sum;
+                    } else {
+                        dstFlt[dstOff + j] = (float) sum;
+                    }
+                }
+                srcOff += srcInc;
+                dstOff += dstInc;
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     * This method does not allocate any object in the two- and three-dimensional affine cases,
+     * except when the source and target regions overlap in a way that requires a copy.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts) {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts) {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts) {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts) {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
     /**
      * Gets the derivative of this transform. In the particular case of linear transforms,
      * the derivative is the same at every points. Consequently the {@code point} argument
@@ -7,8 +7,8 @@
  */
 package org.opengis.example.referencing;
 
-import java.util.Arrays;
 import java.util.Objects;
+import java.lang.reflect.Array;
 
 import org.opengis.metadata.citation.Citation;
 import org.opengis.geometry.DirectPosition;
@@ -42,6 +42,38 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
      */
     private static final long serialVersionUID = -234616434441874739L;
 
+    /**
+     * Maximal number of points in a tile when overlapping source and target regions
+     * are processed through a scratch buffer.
+     *
+     * @see #transformOverlapping(Object, int, int, int, int, int, Kernel)
+     */
+    static final int TILE_SIZE = 512;
+
+    /**
+     * A transform method working on arrays of type {@code A}, which is {@code double[]} or {@code float[]}.
+     * Implementations shall process the points in increasing array index order, and shall read each source
+     * point before to write the corresponding target point. They can assume that this condition is sufficient
+     * for allowing the source and target regions to overlap.
+     *
+     * @param <A> the type of arrays, either {@code double[]} or {@code float[]}.
+     * @param <E> the type of exception thrown if a point can not be transformed.
+     */
+    @FunctionalInterface
+    interface Kernel<A, E extends Exception> {
+        /**
+         * Transforms the given amount of points.
+         *
+         * @param  srcPts  the array containing the source point coordinates.
+         * @param  srcOff  the offset to the first point to be transformed in the source array.
+         * @param  dstPts  the array into which the transformed point coordinates are returned.
+         * @param  dstOff  the offset to the location of the first transformed point in the destination array.
+         * @param  numPts  the number of points to transform.
+         * @throws E if a point can not be transformed.
+         */
+        void transform(A srcPts, int srcOff, A dstPts, int dstOff, int numPts) throws E;
+    }
+
     /**
      * The source CRS, which determine the number of source dimensions.
      *
@@ -185,6 +217,119 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
         return true;
     }
 
+    /**
+     * Returns the direction in which points can be transformed when the source and target arrays
+     * are the same array, assuming that each source point is fully read before the corresponding
+     * target point is written. The returned value is one of the following:
+     *
+     * <ul>
+     *   <li>+1 if points can be processed in increasing array index order.</li>
+     *   <li>-1 if points can be processed in decreasing array index order, starting from the last point.</li>
+     *   <li>0 if the source coordinates need to be copied before to write in the target array.</li>
+     * </ul>
+     *
+     * @param  srcOff  the offset in the source coordinate array.
+     * @param  srcDim  the dimension of input points.
+     * @param  dstOff  the offset in the destination coordinate array.
+     * @param  dstDim  the dimension of output points.
+     * @param  numPts  the number of points to transform.
+     * @return the iteration direction, or 0 if the source array needs to be copied.
+     */
+    static int direction(final int srcOff, final int srcDim, final int dstOff, final int dstDim, final int numPts) {
+        if (!needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+            return +1;
+        }
+        /*
+         * When iterating backward, writing target point i shall not overwrite the source points
+         * before i, which have not yet been read. This is the case if dstOff + i*dstDim is equal
+         * or greater than srcOff + i*srcDim for all i in the [1 … numPts-1] range.
+         */
+        final long ΔDim = srcDim - dstDim;
+        final long required = (ΔDim >= 0) ? (numPts - 1) * ΔDim : ΔDim;
+        return ((long) dstOff - srcOff >= required) ? -1 : 0;
+    }
+
+    /**
+     * Transforms points in an array where the source and target regions may overlap, without copying
+     * the whole source region. The points are processed in the following ways, depending on the value
+     * returned by {@link #direction(int, int, int, int, int)}:
+     *
+     * <ul>
+     *   <li>+1: the given kernel is invoked directly on the whole region.</li>
+     *   <li>-1: the points are processed in tiles of at most {@value #TILE_SIZE} points, starting from
+     *       the last tile. The source coordinates of each tile are copied in a scratch buffer before
+     *       the kernel writes the target coordinates.</li>
+     *   <li>0: the region is split at the point where the target coordinates start to move ahead of the
+     *       source coordinates (or conversely). Each part can be processed in one of the above ways, and
+     *       the parts are processed in an order such that neither part overwrites the unread source
+     *       coordinates of the other part.</li>
+     * </ul>
+     *
+     * Consequently the memory used by this method is bounded by the tile size, regardless the number of points.
+     *
+     * @param  <A>     the type of arrays, either {@code double[]} or {@code float[]}.
+     * @param  <E>     the type of exception thrown if a point can not be transformed.
+     * @param  array   the array containing the source coordinates and where to write the target coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the array.
+     * @param  srcDim  the dimension of input points.
+     * @param  dstOff  the offset to the location of the first transformed point in the array.
+     * @param  dstDim  the dimension of output points.
+     * @param  numPts  the number of points to transform.
+     * @param  kernel  the method to invoke for transforming the points in increasing index order.
+     * @throws E if a point can not be transformed.
+     */
+    static <A, E extends Exception> void transformOverlapping(final A array, final int srcOff, final int srcDim,
+            final int dstOff, final int dstDim, final int numPts, final Kernel<A,E> kernel) throws E
+    {
+        switch (direction(srcOff, srcDim, dstOff, dstDim, numPts)) {
+            case +1: {
+                kernel.transform(array, srcOff, array, dstOff, numPts);
+                break;
+            }
+            case -1: {
+                @SuppressWarnings("unchecked")
+                final A scratch = (A) Array.newInstance(array.getClass().getComponentType(),
+                                                        Math.min(numPts, TILE_SIZE) * srcDim);
+                int remaining = numPts;
+                while (remaining > 0) {
+                    final int n = Math.min(remaining, TILE_SIZE);
+                    remaining -= n;
+                    System.arraycopy(array, srcOff + remaining*srcDim, scratch, 0, n*srcDim);
+                    kernel.transform(scratch, 0, array, dstOff + remaining*dstDim, n);
+                }
+                break;
+            }
+            default: {
+                /*
+                 * The difference between target and source offsets of point i is d(i) = d(0) - i*ΔDim.
+                 * We reach this point only if d(i) changes its sign inside the region. Points having
+                 * d(i) ≥ 0 can be processed backward and points having d(i) ≤ 0 can be processed forward.
+                 * If the target moves ahead (ΔDim < 0), the last part shall be processed first since it
+                 * writes only after the end of the first part. Conversely if the target moves behind.
+                 */
+                final long d0   = (long) dstOff - srcOff;
+                final int  ΔDim = srcDim - dstDim;
+                final int  split;
+                if (ΔDim < 0) {
+                    split = (int) ((-d0 - ΔDim - 1) / -ΔDim);     // Smallest i such as d(i) ≥ 0.
+                } else {
+                    split = (int) (d0 / ΔDim) + 1;                // Smallest i such as d(i) < 0.
+                }
+                assert split > 0 && split < numPts : split;
+                final int srcSplit = srcOff + split*srcDim;
+                final int dstSplit = dstOff + split*dstDim;
+                if (ΔDim < 0) {
+                    transformOverlapping(array, srcSplit, srcDim, dstSplit, dstDim, numPts - split, kernel);
+                    transformOverlapping(array, srcOff,   srcDim, dstOff,   dstDim, split, kernel);
+                } else {
+                    transformOverlapping(array, srcOff,   srcDim, dstOff,   dstDim, split, kernel);
+                    transformOverlapping(array, srcSplit, srcDim, dstSplit, dstDim, numPts - split, kernel);
+                }
+                break;
+            }
+        }
+    }
+
     /**
      * Transforms a list of coordinate point ordinal values.
      *
@@ -196,17 +341,17 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
      * @throws TransformException if a point can not be transformed.
      */
     @Override
-    public void transform(double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+    public void transform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
             throws TransformException
     {
         final int srcDim = getSourceDimensions();
         final int dstDim = getTargetDimensions();
-        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
-        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
         if (srcPts == dstPts && needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
-            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
-            srcOff = 0;
+            transformOverlapping(srcPts, srcOff, srcDim, dstOff, dstDim, numPts, this::transform);
+            return;
         }
+        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
+        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
         while (--numPts >= 0) {
             System.arraycopy(srcPts, srcOff, ptSrc.ordinates, 0, srcDim);
             transform(ptSrc, ptDst);
@@ -227,17 +372,17 @@ public abstract class SimpleTransform extends SimpleIdentifiedObject implements
      * @throws TransformException if a point can not be transformed.
      */
     @Override
-    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+    public void transform(final float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
             throws TransformException
     {
         final int srcDim = getSourceDimensions();
         final int dstDim = getTargetDimensions();
-        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
-        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
         if (srcPts == dstPts && needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
-            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
-            srcOff = 0;
+            transformOverlapping(srcPts, srcOff, srcDim, dstOff, dstDim, numPts, this::transform);
+            return;
         }
+        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
+        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
         while (--numPts >= 0) {
             arraycopy(srcPts, srcOff, ptSrc.ordinates, 0, srcDim);
             transform(ptSrc, ptDst);
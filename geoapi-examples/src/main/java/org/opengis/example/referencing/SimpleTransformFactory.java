@@ -149,23 +149,38 @@ public class SimpleTransformFactory implements MathTransformFactory {
     }
 
     /**
-     * Creates a transform by concatenating two existing transforms. The default implementation
-     * throws an exception in all cases since concatenated transforms are not implemented by this
-     * simple factory.
+     * Creates a transform by concatenating two existing transforms. Adjacent linear steps
+     * ({@link AffineTransform2D} or {@link ProjectiveTransform}) are multiplied eagerly into a
+     * single matrix, so a chain of linear transforms collapses into a single linear transform.
+     *
+     * @param  transform1  the first transform to apply to points.
+     * @param  transform2  the second transform to apply to points.
+     * @return the concatenated transform.
+     * @throws FactoryException if the dimensions of the given transforms do not match.
+     *
+     * @see ConcatenatedTransform
      */
     @Override
     public MathTransform createConcatenatedTransform(MathTransform transform1, MathTransform transform2) throws FactoryException {
-        throw new FactoryException("Concatenated transforms are not implemented.");
+        return ConcatenatedTransform.create(this, transform1, transform2);
     }
 
     /**
      * Creates a transform which passes through a subset of ordinates to another transform.
-     * The default implementation throws an exception in all cases since pass through transforms
-     * are not implemented by this simple factory.
+     * If the sub-transform is linear, then this method returns a linear transform of larger
+     * dimension instead of a {@link PassThroughTransform}.
+     *
+     * @param  firstAffectedCoordinate  index of the first affected coordinate.
+     * @param  subTransform             the sub-transform to apply on the affected coordinates.
+     * @param  numTrailingCoordinates   number of trailing coordinates to pass through.
+     * @return the pass-through transform.
+     * @throws FactoryException if a number of coordinates is negative.
+     *
+     * @see PassThroughTransform
      */
     @Override
     public MathTransform createPassThroughTransform(int firstAffectedCoordinate, MathTransform subTransform, int numTrailingCoordinates) throws FactoryException {
-        throw new FactoryException("Pass through transforms are not implemented.");
+        return PassThroughTransform.create(this, firstAffectedCoordinate, subTransform, numTrailingCoordinates);
     }
 
     /**
@@ -0,0 +1,136 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Set;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+import org.junit.After;
+
+import org.opengis.geometry.DirectPosition;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link BatchTransformer} class.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class BatchTransformerTest {
+    /**
+     * The pool used for the tests.
+     */
+    private final ForkJoinPool pool = new ForkJoinPool(4);
+
+    /**
+     * The transformer to test, with a small threshold for forcing the parallel execution.
+     */
+    private final BatchTransformer transformer = new BatchTransformer(pool, 100);
+
+    /**
+     * Shutdowns the pool after each test.
+     */
+    @After
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Creates a projective transform with random coefficients.
+     */
+    private static ProjectiveTransform createTransform(final Random random) {
+        final SimpleMatrix matrix = new SimpleMatrix(3, 3);
+        for (int j=0; j<3; j++) {
+            for (int i=0; i<3; i++) {
+                matrix.setElement(j, i, random.nextDouble() * 4 + 1);
+            }
+        }
+        return new ProjectiveTransform(null, "Test", null, null, matrix);
+    }
+
+    /**
+     * Tests the transformation of large arrays, which should be split in many ranges.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testParallel() throws TransformException {
+        final Random random = new Random(620184753);
+        final MathTransform tr = createTransform(random);
+        final int numPts = 5000;
+        final double[] source = new double[numPts * 2 + 4];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 100 - 50;
+        }
+        final double[] expected = source.clone();
+        tr.transform(source, 2, expected, 2, numPts);
+        /*
+         * Distinct arrays, then in-place transformation.
+         */
+        final double[] target = source.clone();
+        transformer.transform(tr, source, 2, target, 2, numPts);
+        assertArrayEquals(expected, target, 0);
+        final double[] data = source.clone();
+        transformer.transform(tr, data, 2, data, 2, numPts);
+        assertArrayEquals(expected, data, 0);
+        /*
+         * Overlapping regions at different offsets, which must be executed sequentially.
+         */
+        final double[] shifted = source.clone();
+        transformer.transform(tr, shifted, 2, shifted, 0, numPts);
+        for (int i=0; i<numPts*2; i++) {
+            assertEquals(expected[i+2], shifted[i], 0);
+        }
+        /*
+         * Float arrays.
+         */
+        final float[] floats = new float[source.length];
+        for (int i=0; i<floats.length; i++) {
+            floats[i] = (float) source[i];
+        }
+        final float[] expectedFloats = floats.clone();
+        tr.transform(floats, 2, expectedFloats, 2, numPts);
+        transformer.transform(tr, floats, 2, floats, 2, numPts);
+        assertArrayEquals(expectedFloats, floats, 0);
+    }
+
+    /**
+     * Tests that transforms not known to be thread-safe are executed in the caller thread.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testSequential() throws TransformException {
+        final ProjectiveTransform tr = createTransform(new Random(274910385));
+        final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        @SuppressWarnings("serial")
+        final SimpleTransform unsafe = new SimpleTransform(null, "Unsafe", null, null) {
+            @Override public int getSourceDimensions() {return 2;}
+            @Override public int getTargetDimensions() {return 2;}
+            @Override public DirectPosition transform(DirectPosition ptSrc, DirectPosition ptDst) {
+                threads.add(Thread.currentThread());
+                return tr.transform(ptSrc, ptDst);
+            }
+        };
+        assertFalse(transformer.isThreadSafe(unsafe));
+        assertFalse(transformer.isThreadSafe(new ConcatenatedTransform(null, "Test", tr, unsafe)));
+        assertTrue (transformer.isThreadSafe(new ConcatenatedTransform(null, "Test", tr, tr)));
+
+        final double[] data = new double[2000];
+        transformer.transform(unsafe, data, 0, data, 0, 1000);
+        assertEquals(1, threads.size());
+        assertTrue(threads.contains(Thread.currentThread()));
+    }
+}
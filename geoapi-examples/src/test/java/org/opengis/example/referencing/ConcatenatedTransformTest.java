@@ -0,0 +1,201 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ */
+package org.opengis.example.referencing;
+
+import java.util.Random;
+import java.awt.geom.Point2D;
+
+import org.junit.Test;
+
+import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.example.geometry.SimpleDirectPosition;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link ConcatenatedTransform} and {@link PassThroughTransform} classes,
+ * as created by {@link SimpleTransformFactory}.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class ConcatenatedTransformTest {
+    /**
+     * The factory to use for creating the transforms.
+     */
+    private final SimpleTransformFactory factory = new SimpleTransformFactory();
+
+    /**
+     * Creates a non-linear two-dimensional transform for testing purpose.
+     */
+    @SuppressWarnings("serial")
+    private static SimpleTransform2D nonLinear() {
+        return new SimpleTransform2D(null, "Non-linear", null, null) {
+            @Override
+            public Point2D transform(final Point2D ptSrc, Point2D ptDst) {
+                if (ptDst == null) {
+                    ptDst = new Point2D.Double();
+                }
+                final double x = ptSrc.getX();
+                ptDst.setLocation(x, ptSrc.getY() + x*x / 100);
+                return ptDst;
+            }
+        };
+    }
+
+    /**
+     * Creates a linear transform from the given matrix elements.
+     */
+    private MathTransform linear(final int size, final double... elements) throws FactoryException {
+        final SimpleMatrix matrix = new SimpleMatrix(size, size);
+        matrix.set(elements);
+        return factory.createAffineTransform(matrix);
+    }
+
+    /**
+     * Tests that consecutive linear transforms are merged in a single matrix.
+     *
+     * @throws FactoryException if a transform can not be created.
+     */
+    @Test
+    public void testLinearMerge() throws FactoryException {
+        final MathTransform tr1 = linear(3, 2, 0, 1,
+                                            0, 3, 2,
+                                            0, 0, 1);
+        final MathTransform tr2 = linear(3, 1, 0, -1,
+                                            0, 1,  4,
+                                            0, 0,  1);
+        final MathTransform c = factory.createConcatenatedTransform(tr1, tr2);
+        assertInstanceOf(AffineTransform2D.class, c);
+        final AffineTransform2D affine = (AffineTransform2D) c;
+        assertEquals(2, affine.getScaleX(),     0);
+        assertEquals(3, affine.getScaleY(),     0);
+        assertEquals(0, affine.getTranslateX(), 0);
+        assertEquals(6, affine.getTranslateY(), 0);
+        /*
+         * A linear transform followed by its inverse shall collapse to the identity transform.
+         */
+        final MathTransform tr3 = linear(4, 2, 0, 0, 1,
+                                            0, 4, 0, 2,
+                                            0, 0, 8, 3,
+                                            0, 0, 0, 1);
+        final MathTransform tr4 = linear(4, 0.5, 0,     0,     -0.5,
+                                            0,   0.25,  0,     -0.5,
+                                            0,   0,     0.125, -0.375,
+                                            0,   0,     0,      1);
+        assertInstanceOf(ProjectiveTransform.class, factory.createConcatenatedTransform(tr3, tr3));
+        assertTrue(factory.createConcatenatedTransform(tr3, tr4).isIdentity());
+    }
+
+    /**
+     * Tests a chain of linear and non-linear transforms, including with overlapping arrays.
+     *
+     * @throws FactoryException if a transform can not be created.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testNonLinearChain() throws FactoryException, TransformException {
+        final MathTransform tr1 = linear(3, 2, 0, 1,
+                                            0, 3, 2,
+                                            0, 0, 1);
+        final MathTransform tr2 = nonLinear();
+        final MathTransform tr3 = linear(3, 0, 1, 5,
+                                            1, 0, 0,
+                                            0, 0, 1);
+        final MathTransform c = factory.createConcatenatedTransform(
+                factory.createConcatenatedTransform(tr1, tr2), tr3);
+        assertInstanceOf(ConcatenatedTransform.class, c);
+        assertEquals(2, c.getSourceDimensions());
+        assertEquals(2, c.getTargetDimensions());
+        assertFalse(c.isIdentity());
+
+        final Random random = new Random(583726401);
+        final int numPts = 1200;                    // More than one chunk.
+        final double[] source = new double[(numPts + 2) * 2];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 100 - 50;
+        }
+        final double[] expected = new double[numPts * 2];
+        final SimpleDirectPosition point = new SimpleDirectPosition(2);
+        for (int p=0; p<numPts; p++) {
+            System.arraycopy(source, (p + 1) * 2, point.ordinates, 0, 2);
+            tr3.transform(tr2.transform(tr1.transform(point, null), null), point);
+            System.arraycopy(point.ordinates, 0, expected, p * 2, 2);
+        }
+        for (int shift = -2; shift <= 2; shift += 2) {
+            final double[] data = source.clone();
+            c.transform(data, 2, data, 2 + shift, numPts);
+            for (int i=0; i<expected.length; i++) {
+                assertEquals(expected[i], data[2 + shift + i], 1E-9);
+            }
+        }
+    }
+
+    /**
+     * Tests the pass-through transform, both with a linear and a non-linear sub-transform.
+     *
+     * @throws FactoryException if a transform can not be created.
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testPassThrough() throws FactoryException, TransformException {
+        final MathTransform linear = factory.createPassThroughTransform(1, linear(3,
+                2, 0, 1,
+                0, 3, 2,
+                0, 0, 1), 1);
+        assertInstanceOf(ProjectiveTransform.class, linear);
+        final double[] point = {10, 20, 30, 40};
+        linear.transform(point, 0, point, 0, 1);
+        assertArrayEquals(new double[] {10, 41, 92, 40}, point, 0);
+
+        final MathTransform sub = nonLinear();
+        final MathTransform tr = factory.createPassThroughTransform(1, sub, 1);
+        assertInstanceOf(PassThroughTransform.class, tr);
+        assertEquals(4, tr.getSourceDimensions());
+        assertEquals(4, tr.getTargetDimensions());
+
+        final Random random = new Random(193874520);
+        final int numPts = 700;
+        final double[] source = new double[(numPts + 2) * 4];
+        for (int i=0; i<source.length; i++) {
+            source[i] = random.nextDouble() * 100 - 50;
+        }
+        final double[] expected = new double[numPts * 4];
+        for (int p=0; p<numPts; p++) {
+            final int s = (p + 1) * 4;
+            final int d = p * 4;
+            final double x = source[s+1];
+            expected[d  ] = source[s];
+            expected[d+1] = x;
+            expected[d+2] = source[s+2] + x*x / 100;
+            expected[d+3] = source[s+3];
+        }
+        for (int shift = -4; shift <= 4; shift += 4) {
+            final double[] data = source.clone();
+            tr.transform(data, 4, data, 4 + shift, numPts);
+            for (int i=0; i<expected.length; i++) {
+                assertEquals(expected[i], data[4 + shift + i], 1E-9);
+            }
+        }
+        final float[] floats = new float[expected.length];
+        tr.transform(source, 4, floats, 0, numPts);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], floats[i], Math.abs(expected[i]) * 1E-6);
+        }
+    }
+
+    /**
+     * Asserts that the given object is an instance of the given class.
+     */
+    private static void assertInstanceOf(final Class<?> expected, final Object actual) {
+        assertEquals(expected, actual.getClass());
+    }
+}
@@ -7,16 +7,21 @@
  */
 package org.opengis.example.referencing;
 
+import java.util.Random;
+import javax.vecmath.GMatrix;
+
 import org.junit.Test;
 import org.junit.After;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
 
 import org.opengis.util.FactoryException;
+import org.opengis.geometry.DirectPosition;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.test.referencing.AffineTransformTest;
+import org.opengis.example.geometry.SimpleDirectPosition;
 
 import static org.junit.Assert.*;
 
@@ -73,6 +78,149 @@ public strictfp class ProjectiveTransformTest extends AffineTransformTest {
         super.testDimensionReduction();
     }
 
+    /**
+     * Transforms the given points by multiplication of the given matrix with a column vector,
+     * without using the kernels of {@link ProjectiveTransform}.
+     *
+     * @param  matrix  the matrix of the transform.
+     * @param  source  the source coordinates.
+     * @param  srcOff  index of the first coordinate to transform.
+     * @param  numPts  number of points to transform.
+     * @return the transformed coordinates.
+     */
+    private static double[] multiply(final SimpleMatrix matrix, final double[] source, final int srcOff, final int numPts) {
+        final int srcDim = matrix.getNumCol() - 1;
+        final int dstDim = matrix.getNumRow() - 1;
+        final GMatrix point  = new GMatrix(srcDim + 1, 1);
+        final GMatrix result = new GMatrix(dstDim + 1, 1);
+        final double[] target = new double[numPts * dstDim];
+        point.setElement(srcDim, 0, 1);
+        for (int p=0; p<numPts; p++) {
+            for (int i=0; i<srcDim; i++) {
+                point.setElement(i, 0, source[srcOff + p*srcDim + i]);
+            }
+            result.mul(matrix, point);
+            final double w = result.getElement(dstDim, 0);
+            for (int j=0; j<dstDim; j++) {
+                target[p*dstDim + j] = result.getElement(j, 0) / w;
+            }
+        }
+        return target;
+    }
+
+    /**
+     * Tests the array kernels of {@link ProjectiveTransform} with overlapping source and target
+     * regions in the same array, for an affine 3D transform and a non-affine 2D transform.
+     * The expected results are computed by matrix multiplications. The transformation of each point by
+     * {@link ProjectiveTransform#transform(org.opengis.geometry.DirectPosition,
+     * org.opengis.geometry.DirectPosition)} is also verified.
+     *
+     * @throws TransformException should never happen.
+     */
+    @Test
+    public void testOverlappingArrays() throws TransformException {
+        final Random random = new Random(318526091);
+        final SimpleMatrix affine = new SimpleMatrix(4, 4);
+        final SimpleMatrix perspective = new SimpleMatrix(3, 3);
+        for (final SimpleMatrix matrix : new SimpleMatrix[] {affine, perspective}) {
+            for (int j=0; j<matrix.getNumRow(); j++) {
+                for (int i=0; i<matrix.getNumCol(); i++) {
+                    matrix.setElement(j, i, random.nextDouble() * 4 + 1);
+                }
+            }
+        }
+        affine.setRow(3, new double[] {0, 0, 0, 1});
+        for (final SimpleMatrix matrix : new SimpleMatrix[] {affine, perspective}) {
+            final ProjectiveTransform tr = new ProjectiveTransform(null, "Test", null, null, matrix);
+            transform = tr;
+            final int dim = tr.getSourceDimensions();
+            final int numPts = 20;
+            final double[] source = new double[(numPts + 2) * dim];
+            for (int i=0; i<source.length; i++) {
+                source[i] = random.nextDouble() * 100 - 50;
+            }
+            final double[] expected = multiply(matrix, source, dim, numPts);
+            final SimpleDirectPosition point = new SimpleDirectPosition(dim);
+            for (int p=0; p<numPts; p++) {
+                System.arraycopy(source, (p + 1) * dim, point.ordinates, 0, dim);
+                tr.transform(point, point);
+                for (int i=0; i<dim; i++) {
+                    assertEquals(expected[p*dim + i], point.ordinates[i], Math.abs(expected[p*dim + i]) * 1E-12);
+                }
+            }
+            for (int shift = -dim; shift <= dim; shift += dim) {
+                final double[] data = source.clone();
+                tr.transform(data, dim, data, dim + shift, numPts);
+                for (int i=0; i<expected.length; i++) {
+                    assertEquals(expected[i], data[dim + shift + i], Math.abs(expected[i]) * 1E-12);
+                }
+                final float[] floats = new float[expected.length];
+                tr.transform(source, dim, floats, 0, numPts);
+                for (int i=0; i<expected.length; i++) {
+                    assertEquals(expected[i], floats[i], Math.abs(expected[i]) * 1E-6);
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the transformation of overlapping arrays with transforms changing the number of dimensions,
+     * in which case the target coordinates may move ahead of the source coordinates (or conversely)
+     * in the middle of the array. This test uses both the {@link ProjectiveTransform} kernels and the
+     * default {@link SimpleTransform} implementation.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Test
+    public void testOverlappingDimensionChange() throws TransformException {
+        final Random random = new Random(740215983);
+        final int numPts = 2000;                    // More than one tile.
+        for (final boolean expand : new boolean[] {false, true}) {
+            final SimpleMatrix matrix = new SimpleMatrix(expand ? 4 : 3, expand ? 3 : 4);
+            for (int j=0; j<matrix.getNumRow(); j++) {
+                for (int i=0; i<matrix.getNumCol(); i++) {
+                    matrix.setElement(j, i, random.nextDouble() * 4 + 1);
+                }
+            }
+            final ProjectiveTransform tr = new ProjectiveTransform(null, "Test", null, null, matrix);
+            transform = tr;
+            final int srcDim = tr.getSourceDimensions();
+            final int dstDim = tr.getTargetDimensions();
+            final SimpleTransform generic = new SimpleTransform(null, "Generic", null, null) {
+                @Override public int getSourceDimensions() {return srcDim;}
+                @Override public int getTargetDimensions() {return dstDim;}
+                @Override public DirectPosition transform(DirectPosition ptSrc, DirectPosition ptDst) {
+                    return tr.transform(ptSrc, ptDst);
+                }
+            };
+            final int srcOff = expand ? 40 : 0;     // Crossing point is in the middle of the array.
+            final int dstOff = expand ?  0 : 40;
+            final double[] source = new double[Math.max(srcOff + numPts*srcDim, dstOff + numPts*dstDim)];
+            for (int i=0; i<source.length; i++) {
+                source[i] = random.nextDouble() * 100 - 50;
+            }
+            final float[] floats = new float[source.length];
+            for (int i=0; i<floats.length; i++) {
+                floats[i] = (float) source[i];
+            }
+            final double[] expected = multiply(matrix, source, srcOff, numPts);
+            final float[] expectedFloats = new float[expected.length];
+            tr.transform(floats.clone(), srcOff, expectedFloats, 0, numPts);
+            for (final MathTransform candidate : new MathTransform[] {tr, generic}) {
+                final double[] data = source.clone();
+                candidate.transform(data, srcOff, data, dstOff, numPts);
+                for (int i=0; i<expected.length; i++) {
+                    assertEquals(expected[i], data[dstOff + i], Math.abs(expected[i]) * 1E-12);
+                }
+                final float[] dataFloats = floats.clone();
+                candidate.transform(dataFloats, srcOff, dataFloats, dstOff, numPts);
+                for (int i=0; i<expected.length; i++) {
+                    assertEquals(expectedFloats[i], dataFloats[dstOff + i], 0f);
+                }
+            }
+        }
+    }
+
     /**
      * Invoked after every tests in order to ensure that the transform created by the factory
      * is of the expected type. This method requires that the transform class is exactly the
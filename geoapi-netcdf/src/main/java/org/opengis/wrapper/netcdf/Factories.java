@@ -18,6 +18,7 @@ import java.util.HashMap;
 import java.util.ServiceLoader;
 import org.opengis.util.Factory;
 import org.opengis.util.FactoryException;
+import org.opengis.referencing.operation.MathTransformFactory;
 
 
 /**
@@ -57,6 +58,12 @@ final class Factories {
                 FACTORIES.put(type, candidate);
                 return candidate;
             }
+            if (type == MathTransformFactory.class) {
+                // Fallback on the factory provided by this module, which supports affine transforms.
+                final T candidate = type.cast(new NetcdfTransformFactory());
+                FACTORIES.put(type, candidate);
+                return candidate;
+            }
         }
         throw new FactoryException("No " + type.getSimpleName() + " found.");
     }
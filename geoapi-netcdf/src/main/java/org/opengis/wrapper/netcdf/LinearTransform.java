@@ -0,0 +1,332 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import javax.vecmath.SingularMatrixException;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * An affine transform of arbitrary dimensions, created by {@link NetcdfTransformFactory}.
+ * The matrix is stored as a flat array in row-major order. The last row is assumed to be
+ * [0 0 … 0 1] and is not stored.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class LinearTransform implements MathTransform, Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = -2316412749326858432L;
+
+    /**
+     * The number of source and target dimensions.
+     */
+    private final int srcDim, tgtDim;
+
+    /**
+     * The matrix elements without the last row, in row-major order.
+     * The array length is {@code tgtDim * (srcDim+1)}.
+     */
+    private final double[] elements;
+
+    /**
+     * The inverse transform, created when first needed.
+     */
+    private transient LinearTransform inverse;
+
+    /**
+     * Creates a new transform for the given matrix elements.
+     * The given array is <strong>not</strong> cloned.
+     */
+    private LinearTransform(final int srcDim, final int tgtDim, final double[] elements) {
+        this.srcDim   = srcDim;
+        this.tgtDim   = tgtDim;
+        this.elements = elements;
+    }
+
+    /**
+     * Creates a new transform for the given matrix.
+     *
+     * @param  matrix  the affine matrix.
+     * @throws IllegalArgumentException if the last row of the given matrix is not [0 0 … 0 1].
+     */
+    LinearTransform(final Matrix matrix) {
+        srcDim = matrix.getNumCol() - 1;
+        tgtDim = matrix.getNumRow() - 1;
+        if (srcDim < 0 || tgtDim < 0) {
+            throw new IllegalArgumentException("Empty matrix.");
+        }
+        for (int i=0; i<=srcDim; i++) {
+            if (matrix.getElement(tgtDim, i) != (i == srcDim ? 1 : 0)) {
+                throw new IllegalArgumentException("The last matrix row shall be [0 0 … 0 1].");
+            }
+        }
+        elements = new double[tgtDim * (srcDim + 1)];
+        for (int k=0, j=0; j<tgtDim; j++) {
+            for (int i=0; i<=srcDim; i++) {
+                elements[k++] = matrix.getElement(j, i);
+            }
+        }
+    }
+
+    /**
+     * Returns the matrix of this affine transform, including the last row.
+     *
+     * @return a copy of the affine matrix.
+     */
+    SimpleMatrix getMatrix() {
+        final SimpleMatrix matrix = new SimpleMatrix(tgtDim + 1, srcDim + 1);
+        for (int k=0, j=0; j<tgtDim; j++) {
+            for (int i=0; i<=srcDim; i++) {
+                matrix.setElement(j, i, elements[k++]);
+            }
+        }
+        for (int i=0; i<srcDim; i++) {
+            matrix.setElement(tgtDim, i, 0);
+        }
+        matrix.setElement(tgtDim, srcDim, 1);
+        return matrix;
+    }
+
+    /**
+     * Returns the transform applying this transform followed by the given transform.
+     * The matrix of the returned transform is the product of the two matrices.
+     *
+     * @param  next  the transform to apply after this transform.
+     * @return the concatenation of this transform followed by {@code next}.
+     */
+    LinearTransform concatenate(final LinearTransform next) {
+        final int n = srcDim + 1;
+        final double[] product = new double[next.tgtDim * n];
+        for (int j=0; j<next.tgtDim; j++) {
+            final int row = j * (tgtDim + 1);
+            for (int i=0; i<n; i++) {
+                double sum = (i == srcDim) ? next.elements[row + tgtDim] : 0;
+                for (int k=0; k<tgtDim; k++) {
+                    sum += next.elements[row + k] * elements[k*n + i];
+                }
+                product[j*n + i] = sum;
+            }
+        }
+        return new LinearTransform(srcDim, next.tgtDim, product);
+    }
+
+    /**
+     * Returns the number of source dimensions.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return srcDim;
+    }
+
+    /**
+     * Returns the number of target dimensions.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return tgtDim;
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc  the coordinate point to be transformed.
+     * @param  ptDst  the coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, DirectPosition ptDst) throws MismatchedDimensionException {
+        if (ptSrc.getDimension() != srcDim || (ptDst != null && ptDst.getDimension() != tgtDim)) {
+            throw new MismatchedDimensionException("Expected positions of dimension " + srcDim + " and " + tgtDim + '.');
+        }
+        final double[] coordinates = ptSrc.getCoordinate();
+        final double[] result = new double[tgtDim];
+        transform(coordinates, null, 0, result, null, 0, 1);
+        if (ptDst == null) {
+            ptDst = new SimpleDirectPosition(tgtDim);
+        }
+        for (int j=0; j<tgtDim; j++) {
+            ptDst.setOrdinate(j, result[j]);
+        }
+        return ptDst;
+    }
+
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     */
+    private void transform(double[] srcDbl, float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+    {
+        if ((srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) &&
+                NetcdfProjection.needsCopy(srcOff, srcDim, dstOff, tgtDim, numPts))
+        {
+            if (srcDbl != null) {
+                srcDbl = Arrays.copyOfRange(srcDbl, srcOff, srcOff + numPts*srcDim);
+            } else {
+                srcFlt = Arrays.copyOfRange(srcFlt, srcOff, srcOff + numPts*srcDim);
+            }
+            srcOff = 0;
+        }
+        final double[] point = new double[srcDim];
+        while (--numPts >= 0) {
+            for (int i=0; i<srcDim; i++) {
+                point[i] = (srcDbl != null) ? srcDbl[srcOff++] : srcFlt[srcOff++];
+            }
+            for (int k=0, j=0; j<tgtDim; j++) {
+                double sum = 0;
+                for (int i=0; i<srcDim; i++) {
+                    sum += elements[k++] * point[i];
+                }
+                sum += elements[k++];
+                if (dstDbl != null) {
+                    dstDbl[dstOff++] = sum;
+                } else {
+                    dstFlt[dstOff++] = (float) sum;
+                }
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts) {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts) {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts) {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts) {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Returns the derivative of this transform, which is the same at every points.
+     *
+     * @param  point  ignored, can be {@code null}.
+     * @return the matrix without the translation terms.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) {
+        final SimpleMatrix matrix = new SimpleMatrix(tgtDim, srcDim);
+        for (int j=0; j<tgtDim; j++) {
+            for (int i=0; i<srcDim; i++) {
+                matrix.setElement(j, i, elements[j*(srcDim+1) + i]);
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the inverse of this transform.
+     *
+     * @throws NoninvertibleTransformException if the matrix is not square or is singular.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            if (srcDim != tgtDim) {
+                throw new NoninvertibleTransformException("Non-square matrix.");
+            }
+            final SimpleMatrix matrix = getMatrix();
+            try {
+                matrix.invert();
+            } catch (SingularMatrixException e) {
+                throw new NoninvertibleTransformException("Singular matrix.", e);
+            }
+            final LinearTransform tr = new LinearTransform(matrix);
+            tr.inverse = this;
+            inverse = tr;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code true} if this transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        if (srcDim != tgtDim) {
+            return false;
+        }
+        for (int k=0, j=0; j<tgtDim; j++) {
+            for (int i=0; i<=srcDim; i++) {
+                if (elements[k++] != (i == j ? 1 : 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unsupported operation.
+     *
+     * @throws UnsupportedOperationException always thrown.
+     */
+    @Override
+    public String toWKT() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns {@code true} if this transform is equal to the given object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof LinearTransform) {
+            final LinearTransform other = (LinearTransform) object;
+            return srcDim == other.srcDim && tgtDim == other.tgtDim && Arrays.equals(elements, other.elements);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(elements) + 31*srcDim;
+    }
+}
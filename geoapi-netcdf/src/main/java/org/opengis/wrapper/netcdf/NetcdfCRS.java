@@ -14,12 +14,14 @@
 package org.opengis.wrapper.netcdf;
 
 import java.io.IOException;
+import java.util.Map;
 import java.util.Date;
 import java.util.List;
 import java.util.Arrays;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Formatter;
+import java.util.IdentityHashMap;
 import java.util.Objects;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -195,6 +197,9 @@ public class NetcdfCRS extends NetcdfIdentifiedObject implements CoordinateRefer
      * that more accurate coordinate axes may be created if a reference to the original dataset file
      * is provided. This apply especially to {@link CoordinateAxis1DTime}.
      *
+     * <p>This method creates a new wrapper on each call. Callers wrapping the same coordinate
+     * systems many times can use a {@link Cache} instead.</p>
+     *
      * @param  netcdfCS  the netCDF coordinate system to wrap, or {@code null} if none.
      * @param  file      the originating dataset file, or {@code null} if none.
      * @param  logger    an optional object where to log warnings, or {@code null} if none.
@@ -210,6 +215,91 @@ public class NetcdfCRS extends NetcdfIdentifiedObject implements CoordinateRefer
         if (netcdfCS == null) {
             return null;
         }
+        return create(netcdfCS, file, logger);
+    }
+
+    /**
+     * The wrappers created for the coordinate systems of a single dataset. Invoking {@link #wrap(CoordinateSystem)}
+     * many times for the same netCDF coordinate system returns the same {@code NetcdfCRS} instance, which shares
+     * its {@linkplain #getGridToCRS() grid to CRS} transform among all callers.
+     *
+     * <p>The wrappers reference the dataset through their netCDF coordinate systems, so a cache lives
+     * as long as the dataset it was created for. Callers should keep the cache together with the dataset
+     * and discard both when the dataset is closed. This class is thread-safe.</p>
+     *
+     * @version 3.1
+     * @since   3.1
+     */
+    public static final class Cache {
+        /**
+         * The dataset file given to {@link NetcdfCRS#wrap(CoordinateSystem, NetcdfDataset, Logger)}.
+         */
+        private final NetcdfDataset file;
+
+        /**
+         * Where to log warnings, or {@code null} if none.
+         */
+        private final Logger logger;
+
+        /**
+         * The wrappers created for each netCDF coordinate system.
+         * All accesses to this map shall be synchronized on the map.
+         */
+        private final Map<CoordinateSystem, NetcdfCRS> wrappers;
+
+        /**
+         * Creates a new, initially empty, cache of wrappers for the given dataset.
+         *
+         * @param file    the originating dataset file.
+         * @param logger  an optional object where to log warnings, or {@code null} if none.
+         */
+        public Cache(final NetcdfDataset file, final Logger logger) {
+            Objects.requireNonNull(file, "file");
+            this.file     = file;
+            this.logger   = logger;
+            this.wrappers = new IdentityHashMap<>();
+        }
+
+        /**
+         * Returns the wrapper for the given netCDF coordinate system, creating it when first needed.
+         *
+         * @param  netcdfCS  the netCDF coordinate system to wrap, or {@code null} if none.
+         * @return a wrapper for the given object, or {@code null} if the {@code netcdfCS} argument was null.
+         * @throws ClassCastException if at least one axis is not an instance of the {@link CoordinateAxis1D} subclass.
+         * @throws IOException if an I/O operation was needed and failed.
+         *
+         * @see NetcdfCRS#wrap(CoordinateSystem, NetcdfDataset, Logger)
+         */
+        public NetcdfCRS wrap(final CoordinateSystem netcdfCS) throws IOException, ClassCastException {
+            if (netcdfCS == null) {
+                return null;
+            }
+            synchronized (wrappers) {
+                final NetcdfCRS crs = wrappers.get(netcdfCS);
+                if (crs != null) {
+                    return crs;
+                }
+            }
+            /*
+             * Create the wrapper outside the synchronized block since it may require I/O operations.
+             * If another thread created a wrapper for the same coordinate system in the meantime,
+             * use the wrapper created by the other thread so that all callers share the same instance.
+             */
+            final NetcdfCRS crs = create(netcdfCS, file, logger);
+            synchronized (wrappers) {
+                final NetcdfCRS existing = wrappers.putIfAbsent(netcdfCS, crs);
+                return (existing != null) ? existing : crs;
+            }
+        }
+    }
+
+    /**
+     * Creates a new {@code NetcdfCRS} object.
+     * This is the implementation of {@link #wrap(CoordinateSystem, NetcdfDataset, Logger)}.
+     */
+    private static NetcdfCRS create(final CoordinateSystem netcdfCS, final NetcdfDataset file,
+                final Logger logger) throws IOException, ClassCastException
+    {
         /*
          * Separate the horizontal, vertical and temporal components. We need to iterate
          * over the netCDF axes in reverse order (see class javadoc). We don't use the
@@ -449,12 +539,15 @@ public class NetcdfCRS extends NetcdfIdentifiedObject implements CoordinateRefer
 
     /**
      * Returns the transform from grid coordinates to this CRS coordinates, or {@code null} if
-     * none. If this CRS is regular and two-dimensional, then the returned transform is also an
-     * instance of Java2D {@link java.awt.geom.AffineTransform}.
-    *
-    * <p><b>Limitation</b><br>
-     * Current implementation can build a transform only for regular coordinate systems.
-     * A future implementation may be more general.</p>
+     * none. If this CRS is regular, then the returned transform is affine. It is created by the
+     * first {@link MathTransformFactory} found on the classpath, or by {@link NetcdfTransformFactory}
+     * if none. Whether a two-dimensional transform is also an instance of Java2D
+     * {@link java.awt.geom.AffineTransform} depends on that factory; the transforms created by
+     * {@code NetcdfTransformFactory} are not.
+     *
+     * <p><b>Limitation</b><br>
+     * Current implementation can build a transform only for rectilinear coordinate systems
+     * (i.e. made of {@link CoordinateAxis1D}) in which each irregular axis is monotonic.</p>
      *
      * @return the transform from grid to this CRS, or {@code null} if none.
      */
@@ -467,10 +560,14 @@ public class NetcdfCRS extends NetcdfIdentifiedObject implements CoordinateRefer
 
     /**
      * Returns the transform from grid coordinates to this CRS coordinates in the given
-     * range of dimensions.
+     * range of dimensions. If all axes in the given range are regular, then the transform
+     * is affine. Otherwise the coordinates along irregular axes are interpolated in a table
+     * of the axis coordinate values, while the regular axes are still converted by a scale
+     * and an offset.
      *
      * <p><b>Limitation</b><br>
-     * Current implementation can build a transform only for regular axes.
+     * Current implementation can build a transform only for regular axes and for irregular numeric
+     * axes having at least two strictly increasing or strictly decreasing coordinate values.
      * A future implementation may be more general.</p>
      *
      * @param  lowerDimension  index of the first dimension for which to get the transform.
@@ -484,18 +581,37 @@ public class NetcdfCRS extends NetcdfIdentifiedObject implements CoordinateRefer
             throw new IllegalArgumentException("Illegal range");
         }
         final int numDimensions = upperDimension - lowerDimension;
-        final SimpleMatrix matrix = new SimpleMatrix(numDimensions + 1);
+        final double[]   scales  = new double[numDimensions];
+        final double[]   offsets = new double[numDimensions];
+        final double[][] tables  = new double[numDimensions][];
+        boolean isAffine = true;
         for (int i=0; i<numDimensions; i++) {
             final CoordinateAxis1D axis = axes[lowerDimension + i].delegate();
-            if (!axis.isRegular()) {
-                return null;
+            if (axis.isRegular()) {
+                final double scale = axis.getIncrement();
+                if (!Double.isNaN(scale) && scale != 0) {
+                    scales [i] = nice(scale);
+                    offsets[i] = nice(axis.getStart());
+                    continue;
+                }
+            }
+            if (!axis.isNumeric()) {
+                return null;                // getCoordValues() is not supported on character axes.
             }
-            final double scale = axis.getIncrement();
-            if (Double.isNaN(scale) || scale == 0) {
+            final double[] values = axis.getCoordValues();
+            if (!RectilinearTransform.isMonotonic(values)) {
                 return null;
             }
-            matrix.setElement(i, i, nice(scale));
-            matrix.setElement(i, numDimensions, nice(axis.getStart()));
+            tables[i] = values.clone();
+            isAffine = false;
+        }
+        if (!isAffine) {
+            return new RectilinearTransform(scales, offsets, tables);
+        }
+        final SimpleMatrix matrix = new SimpleMatrix(numDimensions + 1);
+        for (int i=0; i<numDimensions; i++) {
+            matrix.setElement(i, i, scales[i]);
+            matrix.setElement(i, numDimensions, offsets[i]);
         }
         try {
             return Factories.getFactory(MathTransformFactory.class).createAffineTransform(matrix);
@@ -0,0 +1,302 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.io.IOException;
+import java.util.Objects;
+
+import ucar.ma2.Array;
+import ucar.ma2.Section;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Attribute;
+import ucar.nc2.Variable;
+
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+
+/**
+ * Reads the values of a netCDF {@link Variable} in tiles, using the grid geometry of a {@link NetcdfCRS}.
+ * The area to read is specified by an {@link Envelope} in units of the CRS. That envelope is converted
+ * to a range of grid indices using the {@linkplain NetcdfCRS#getGridToCRS() grid to CRS} transform,
+ * then only the netCDF chunks intersecting that range are read.
+ *
+ * <p><b>Tiling</b><br>
+ * The tiles are aligned on the chunks declared by the {@code "_ChunkSizes"} attribute, which is provided
+ * by the netCDF library for netCDF-4 files. For netCDF-3 files (which are not chunked), each tile contains
+ * the two fastest varying dimensions in full and has a length of 1 in all other dimensions. Tiles are
+ * delivered in the order they are stored in the file, with the last netCDF dimension varying fastest.</p>
+ *
+ * <p><b>Dimension order</b><br>
+ * The {@link Section} objects used by this class are in netCDF dimension order, which is the reverse
+ * of the CRS axis order (see {@link NetcdfCRS} class javadoc).</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public class NetcdfCoverageReader {
+    /**
+     * The name of the netCDF attribute giving the chunk sizes of a variable.
+     */
+    private static final String CHUNK_SIZES = "_ChunkSizes";
+
+    /**
+     * Receives the tiles read by {@link NetcdfCoverageReader}.
+     *
+     * @version 3.1
+     * @since   3.1
+     */
+    @FunctionalInterface
+    public interface TileHandler {
+        /**
+         * Invoked for each tile read from the netCDF file.
+         *
+         * @param  section  the grid indices of the tile, in netCDF dimension order.
+         * @param  values   the values read for the given section.
+         * @throws IOException if an error occurred while processing the values.
+         */
+        void process(Section section, Array values) throws IOException;
+    }
+
+    /**
+     * The netCDF variable to read.
+     */
+    private final Variable variable;
+
+    /**
+     * The coordinate reference system of the variable.
+     */
+    private final NetcdfCRS crs;
+
+    /**
+     * The variable dimension for each CRS dimension.
+     */
+    private final int[] variableDimensions;
+
+    /**
+     * The tile size in each variable dimension. All values are strictly positive.
+     */
+    private final int[] chunkShape;
+
+    /**
+     * Creates a new reader for the given variable.
+     *
+     * @param  variable  the netCDF variable to read.
+     * @param  crs       the coordinate reference system of the variable.
+     * @throws IllegalArgumentException if the variable dimensions do not match the CRS axes.
+     */
+    public NetcdfCoverageReader(final Variable variable, final NetcdfCRS crs) {
+        Objects.requireNonNull(variable);
+        Objects.requireNonNull(crs);
+        this.variable = variable;
+        this.crs      = crs;
+        final int dimension = crs.getDimension();
+        if (variable.getRank() != dimension) {
+            throw new IllegalArgumentException("Variable \"" + variable.getShortName() + "\" has "
+                    + variable.getRank() + " dimensions while the CRS has " + dimension + " axes.");
+        }
+        variableDimensions = new int[dimension];
+        for (int i=0; i<dimension; i++) {
+            final String name = crs.getAxis(i).delegate().getDimension(0).getShortName();
+            final int j = variable.findDimensionIndex(name);
+            if (j < 0) {
+                throw new IllegalArgumentException("Variable \"" + variable.getShortName()
+                        + "\" has no \"" + name + "\" dimension.");
+            }
+            variableDimensions[i] = j;
+        }
+        chunkShape = chunkShape(variable);
+    }
+
+    /**
+     * Returns the tile size in each variable dimension.
+     */
+    private static int[] chunkShape(final Variable variable) {
+        final int[] shape = variable.getShape();
+        final int[] chunk = new int[shape.length];
+        final Attribute attribute = variable.findAttributeIgnoreCase(CHUNK_SIZES);
+        if (attribute != null && attribute.getLength() == shape.length) {
+            for (int j=0; j<chunk.length; j++) {
+                final Number size = attribute.getNumericValue(j);
+                if (size != null) {
+                    chunk[j] = size.intValue();
+                }
+            }
+        }
+        for (int j=0; j<chunk.length; j++) {
+            if (chunk[j] <= 0) {
+                chunk[j] = (j >= shape.length - 2) ? shape[j] : 1;
+            }
+            chunk[j] = Math.max(1, Math.min(chunk[j], shape[j]));
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the netCDF variable read by this reader.
+     *
+     * @return the netCDF variable.
+     */
+    public Variable getVariable() {
+        return variable;
+    }
+
+    /**
+     * Returns the coordinate reference system of the variable.
+     *
+     * @return the coordinate reference system.
+     */
+    public NetcdfCRS getCoordinateReferenceSystem() {
+        return crs;
+    }
+
+    /**
+     * Returns the size of the tiles in each netCDF dimension.
+     *
+     * @return the tile size, in netCDF dimension order.
+     */
+    public int[] getChunkShape() {
+        return chunkShape.clone();
+    }
+
+    /**
+     * Returns the range of grid indices of the cells having their center inside the given envelope.
+     * If the given envelope is {@code null}, then this method returns the full extent of the variable.
+     *
+     * @param  areaOfInterest  the envelope in units of the CRS, or {@code null} for the full extent.
+     * @return the grid indices in netCDF dimension order, or {@code null} if no cell is inside the envelope.
+     * @throws MismatchedDimensionException if the envelope dimension is not the CRS dimension.
+     * @throws TransformException if the CRS has no grid to CRS transform, or if the envelope
+     *         can not be converted to grid indices.
+     */
+    public Section getSection(final Envelope areaOfInterest) throws TransformException {
+        final int[] shape = variable.getShape();
+        final int[] lower = new int[shape.length];
+        final int[] size  = shape.clone();
+        if (areaOfInterest != null) {
+            final int dimension = variableDimensions.length;
+            if (areaOfInterest.getDimension() != dimension) {
+                throw new MismatchedDimensionException("Expected a " + dimension + "-dimensional envelope.");
+            }
+            final MathTransform gridToCRS = crs.getGridToCRS();
+            if (gridToCRS == null) {
+                throw new TransformException("No grid to CRS transform for \"" + crs.getCode() + "\".");
+            }
+            /*
+             * Convert all corners of the envelope to grid coordinates in a single call,
+             * since the transform may not be affine. Then take the minimal and maximal
+             * grid coordinates in each dimension.
+             */
+            final int numCorners = 1 << dimension;
+            final double[] corners = new double[numCorners * dimension];
+            for (int c=0, k=0; c<numCorners; c++) {
+                for (int i=0; i<dimension; i++) {
+                    corners[k++] = ((c & (1 << i)) == 0) ? areaOfInterest.getMinimum(i) : areaOfInterest.getMaximum(i);
+                }
+            }
+            gridToCRS.inverse().transform(corners, 0, corners, 0, numCorners);
+            for (int i=0; i<dimension; i++) {
+                double min = Double.POSITIVE_INFINITY;
+                double max = Double.NEGATIVE_INFINITY;
+                for (int k=i; k<corners.length; k += dimension) {
+                    final double g = corners[k];
+                    if (g < min) min = g;
+                    if (g > max) max = g;
+                }
+                final int j = variableDimensions[i];
+                final double low  = Math.max(Math.ceil (min), 0);
+                final double high = Math.min(Math.floor(max), shape[j] - 1);
+                if (!(low <= high)) {                       // Use '!' for catching NaN.
+                    return null;
+                }
+                lower[j] = (int) low;
+                size [j] = (int) (high - low) + 1;
+            }
+        }
+        try {
+            return new Section(lower, size);
+        } catch (InvalidRangeException e) {
+            throw new IllegalStateException(e);             // Should never happen since we clipped the range.
+        }
+    }
+
+    /**
+     * Reads the cells having their center inside the given envelope, tile by tile.
+     * This is a convenience method for {@link #getSection(Envelope)} followed by
+     * {@link #read(Section, TileHandler)}.
+     *
+     * @param  areaOfInterest  the envelope in units of the CRS, or {@code null} for the full extent.
+     * @param  handler         the object which will receive the tiles.
+     * @throws IOException if an error occurred while reading the netCDF file or processing a tile.
+     * @throws TransformException if the envelope can not be converted to grid indices.
+     */
+    public void read(final Envelope areaOfInterest, final TileHandler handler) throws IOException, TransformException {
+        final Section section = getSection(areaOfInterest);
+        if (section != null) {
+            read(section, handler);
+        }
+    }
+
+    /**
+     * Reads the given range of grid indices, tile by tile. The tiles are aligned on the netCDF chunks,
+     * so each chunk in the file is read at most once. Tiles at the border of the section are cropped.
+     *
+     * @param  section  the grid indices to read, in netCDF dimension order.
+     * @param  handler  the object which will receive the tiles.
+     * @throws IOException if an error occurred while reading the netCDF file or processing a tile.
+     * @throws IllegalArgumentException if the section is outside the variable extent.
+     */
+    public void read(final Section section, final TileHandler handler) throws IOException {
+        final int   rank  = chunkShape.length;
+        final int[] lower = section.getOrigin();
+        final int[] upper = section.getShape();
+        if (lower.length != rank) {
+            throw new IllegalArgumentException("Expected a section of rank " + rank + '.');
+        }
+        for (int j=0; j<rank; j++) {
+            upper[j] += lower[j];
+            if (upper[j] <= lower[j]) {
+                return;                                     // Empty section.
+            }
+        }
+        final int[] start = lower.clone();
+        final int[] shape = new int[rank];
+        int j;
+        do {
+            for (j=0; j<rank; j++) {
+                shape[j] = Math.min((start[j] / chunkShape[j] + 1) * chunkShape[j], upper[j]) - start[j];
+            }
+            final Section tile;
+            final Array values;
+            try {
+                tile   = new Section(start, shape);
+                values = variable.read(tile);
+            } catch (InvalidRangeException e) {
+                throw new IllegalArgumentException(e.getLocalizedMessage(), e);
+            }
+            handler.process(tile, values);
+            /*
+             * Move to the next tile, with the last dimension varying fastest
+             * in order to follow the storage order of the netCDF file.
+             */
+            for (j = rank; --j >= 0;) {
+                start[j] = (start[j] / chunkShape[j] + 1) * chunkShape[j];
+                if (start[j] < upper[j]) break;
+                start[j] = lower[j];
+            }
+        } while (j >= 0);
+    }
+}
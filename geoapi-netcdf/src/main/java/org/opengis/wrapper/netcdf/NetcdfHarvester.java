@@ -0,0 +1,405 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.util.Map;
+import java.util.List;
+import java.util.Locale;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Predicate;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.FileVisitResult;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import ucar.nc2.dataset.NetcdfDataset;
+import ucar.nc2.dataset.CoordinateSystem;
+
+
+/**
+ * Extracts the metadata of all netCDF files in a directory tree, reading many files in parallel.
+ * For each file, the harvester opens a {@link NetcdfDataset}, collects the global attributes with
+ * {@link NetcdfMetadata#harvest()}, wraps the coordinate systems in {@link NetcdfCRS} objects,
+ * closes the file and delivers a {@link Result} to a {@link Listener}.
+ *
+ * <p><b>Concurrency and back-pressure</b><br>
+ * Files are read by a fixed pool of {@code parallelism} threads. The directory walk and the
+ * listener both run in the thread invoking {@link #harvest(Path, Listener)}, so listeners do
+ * not need to be thread-safe. At most {@code maxPending} files are being read or waiting for
+ * the listener at any time: when this limit is reached, the directory walk stops until the
+ * listener has consumed a result. Consequently a slow listener (for example a catalogue doing
+ * database insertions) slows down the reading instead of accumulating results in memory.</p>
+ *
+ * <p>Results are delivered in completion order, which is not necessarily the directory order.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public class NetcdfHarvester {
+    /**
+     * Receives the results of {@link NetcdfHarvester}.
+     * All methods are invoked in the thread which invoked {@code harvest(…)}.
+     *
+     * @version 3.1
+     * @since   3.1
+     */
+    @FunctionalInterface
+    public interface Listener {
+        /**
+         * Invoked for each file, after the file has been read and closed.
+         * This method is also invoked for files which could not be read,
+         * in which case {@link Result#getFailure()} is non-null.
+         *
+         * @param  result  the metadata extracted from a netCDF file.
+         * @throws IOException if an error occurred while processing the result.
+         *         This exception stops the harvest.
+         */
+        void harvested(Result result) throws IOException;
+    }
+
+    /**
+     * The metadata extracted from a single netCDF file.
+     *
+     * @version 3.1
+     * @since   3.1
+     */
+    public static final class Result {
+        /** The file which has been read. */
+        private final Path path;
+
+        /** The global attributes, or an empty map if the file can not be read. */
+        private final Map<String,Object> metadata;
+
+        /** The coordinate reference systems, or an empty list if the file can not be read. */
+        private final List<NetcdfCRS> crs;
+
+        /** The exception which occurred while reading the file, or {@code null} if none. */
+        private final Exception failure;
+
+        /** Time elapsed for reading the file, in nanoseconds. */
+        private final long elapsedTime;
+
+        /** Creates a new result. */
+        Result(final Path path, final Map<String,Object> metadata, final List<NetcdfCRS> crs,
+               final Exception failure, final long elapsedTime)
+        {
+            this.path        = path;
+            this.metadata    = metadata;
+            this.crs         = crs;
+            this.failure     = failure;
+            this.elapsedTime = elapsedTime;
+        }
+
+        /**
+         * Returns the path of the netCDF file.
+         *
+         * @return the file which has been read.
+         */
+        public Path getPath() {
+            return path;
+        }
+
+        /**
+         * Returns the global attributes of the netCDF file,
+         * as documented in {@link NetcdfMetadata#harvest()}.
+         *
+         * @return the global attributes, or an empty map if the file can not be read.
+         */
+        public Map<String,Object> getMetadata() {
+            return metadata;
+        }
+
+        /**
+         * Returns the coordinate reference systems of the netCDF file. The file has been closed,
+         * but the coordinate values of all axes have been loaded before closing, so the
+         * {@linkplain NetcdfCRS#getGridToCRS() grid to CRS} transforms are still available.
+         * Coordinate systems having axes which are not one-dimensional are omitted.
+         *
+         * @return the coordinate reference systems, or an empty list if the file can not be read.
+         */
+        public List<NetcdfCRS> getCoordinateReferenceSystems() {
+            return crs;
+        }
+
+        /**
+         * Returns the exception which occurred while reading the file.
+         *
+         * @return the reading failure, or {@code null} if the file has been read successfully.
+         */
+        public Exception getFailure() {
+            return failure;
+        }
+
+        /**
+         * Returns the time elapsed for opening, reading and closing the file.
+         * This does not include the time spent waiting for a thread.
+         *
+         * @param  unit  the desired unit of measurement.
+         * @return the elapsed time in the given unit.
+         */
+        public long getElapsedTime(final TimeUnit unit) {
+            return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * Returns a string representation of this result for debugging purpose.
+         */
+        @Override
+        public String toString() {
+            return path + " (" + getElapsedTime(TimeUnit.MILLISECONDS) + " ms)"
+                    + (failure != null ? ": " + failure : "");
+        }
+    }
+
+    /**
+     * Number of threads reading files.
+     */
+    private final int parallelism;
+
+    /**
+     * Maximal number of files being read or waiting for the listener.
+     */
+    private final int maxPending;
+
+    /**
+     * Creates a new harvester using one thread per available processor.
+     */
+    public NetcdfHarvester() {
+        this(Runtime.getRuntime().availableProcessors(), 4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Creates a new harvester using the given number of threads.
+     *
+     * @param  parallelism  number of files to read concurrently.
+     * @param  maxPending   maximal number of files being read or waiting for the listener.
+     *                      Shall be equal or greater than {@code parallelism}.
+     * @throws IllegalArgumentException if an argument is out of range.
+     */
+    public NetcdfHarvester(final int parallelism, final int maxPending) {
+        if (parallelism < 1 || maxPending < parallelism) {
+            throw new IllegalArgumentException("Illegal parallelism (" + parallelism
+                    + ") or maximal number of pending files (" + maxPending + ").");
+        }
+        this.parallelism = parallelism;
+        this.maxPending  = maxPending;
+    }
+
+    /**
+     * Returns {@code true} if the given file has a netCDF suffix
+     * ({@code ".nc"}, {@code ".nc4"} or {@code ".cdf"}, ignoring case).
+     *
+     * @param  file  the file to test.
+     * @return whether the given file seems to be a netCDF file.
+     */
+    public static boolean isNetcdf(final Path file) {
+        final Path name = file.getFileName();
+        if (name != null) {
+            final String s = name.toString().toLowerCase(Locale.ROOT);
+            return s.endsWith(".nc") || s.endsWith(".nc4") || s.endsWith(".cdf");
+        }
+        return false;
+    }
+
+    /**
+     * Extracts the metadata of all {@linkplain #isNetcdf(Path) netCDF files} in the given directory tree.
+     *
+     * @param  root      the file or root directory to scan.
+     * @param  listener  the object which will receive the results.
+     * @return the number of files given to the listener, including the ones which could not be read.
+     * @throws IOException if the directory tree can not be walked or the listener failed.
+     */
+    public int harvest(final Path root, final Listener listener) throws IOException {
+        return harvest(root, NetcdfHarvester::isNetcdf, listener);
+    }
+
+    /**
+     * Extracts the metadata of all files accepted by the given filter in the given directory tree.
+     * This method blocks until all files have been read and given to the listener.
+     *
+     * @param  root      the file or root directory to scan.
+     * @param  filter    the files to read.
+     * @param  listener  the object which will receive the results.
+     * @return the number of files given to the listener, including the ones which could not be read.
+     * @throws IOException if the directory tree can not be walked or the listener failed.
+     * @throws InterruptedIOException if the current thread has been interrupted.
+     * @throws Error if an error was thrown while reading a file. The harvest is stopped.
+     */
+    public int harvest(final Path root, final Predicate<? super Path> filter, final Listener listener)
+            throws IOException
+    {
+        final Walker walker = new Walker(filter, listener);
+        try {
+            Files.walkFileTree(root, walker);
+            walker.drain();
+        } finally {
+            walker.executor.shutdownNow();
+        }
+        return walker.delivered;
+    }
+
+    /**
+     * Walks the directory tree and delivers the results.
+     * All methods are invoked in the thread which invoked {@code harvest(…)}.
+     */
+    private final class Walker extends SimpleFileVisitor<Path> {
+        /** The files to read. */
+        private final Predicate<? super Path> filter;
+
+        /** The object which will receive the results. */
+        private final Listener listener;
+
+        /** The threads reading files. */
+        final ExecutorService executor;
+
+        /** One permit for each file which can be submitted before a result is delivered. */
+        private final Semaphore permits;
+
+        /** The results waiting for the listener. Contains at most {@link #maxPending} elements. */
+        private final BlockingQueue<Result> results;
+
+        /** Number of files submitted for reading and number of results given to the listener. */
+        int submitted, delivered;
+
+        /** The first error thrown by a worker thread, or {@code null} if none. */
+        private volatile Error fatal;
+
+        /** Creates a new walker. */
+        Walker(final Predicate<? super Path> filter, final Listener listener) {
+            this.filter   = filter;
+            this.listener = listener;
+            executor = Executors.newFixedThreadPool(parallelism);
+            permits  = new Semaphore(maxPending);
+            results  = new LinkedBlockingQueue<>();
+        }
+
+        /**
+         * Gives the next result to the listener, waiting for it if necessary.
+         */
+        private void deliverNext() throws IOException {
+            final Result result;
+            try {
+                result = results.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw (InterruptedIOException) new InterruptedIOException().initCause(e);
+            }
+            delivered++;
+            permits.release();
+            final Error error = fatal;
+            if (error != null) {
+                throw error;
+            }
+            listener.harvested(result);
+        }
+
+        /**
+         * Waits until the number of pending files is below the limit. While waiting,
+         * results are given to the listener, which is what releases the permits.
+         */
+        private void acquire() throws IOException {
+            while (!permits.tryAcquire()) {
+                deliverNext();
+            }
+            submitted++;
+        }
+
+        /**
+         * Submits the given file for reading if it is accepted by the filter.
+         */
+        @Override
+        public FileVisitResult visitFile(final Path file, final BasicFileAttributes attributes) throws IOException {
+            if (attributes.isRegularFile() && filter.test(file)) {
+                acquire();
+                executor.execute(() -> {
+                    /*
+                     * A result shall be added to the queue in all cases, including errors.
+                     * Otherwise deliverNext() would wait forever for the missing result.
+                     */
+                    Result result = null;
+                    try {
+                        result = read(file);
+                    } catch (Error e) {
+                        fatal = e;
+                    } finally {
+                        if (result == null) {
+                            result = new Result(file, Collections.emptyMap(), Collections.emptyList(), null, 0);
+                        }
+                        results.add(result);
+                    }
+                });
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Reports a file which can not be visited as a failed result, without stopping the walk.
+         */
+        @Override
+        public FileVisitResult visitFileFailed(final Path file, final IOException exception) throws IOException {
+            if (filter.test(file)) {
+                acquire();
+                results.add(new Result(file, Collections.emptyMap(), Collections.emptyList(), exception, 0));
+            }
+            return FileVisitResult.CONTINUE;
+        }
+
+        /**
+         * Gives all remaining results to the listener.
+         */
+        void drain() throws IOException {
+            while (delivered < submitted) {
+                deliverNext();
+            }
+        }
+    }
+
+    /**
+     * Reads the given file. This method is invoked in a worker thread and never throws exception;
+     * failures are reported in the returned result instead.
+     *
+     * @param  file  the netCDF file to read.
+     * @return the metadata extracted from the given file.
+     */
+    private static Result read(final Path file) {
+        final long start = System.nanoTime();
+        try (NetcdfDataset dataset = NetcdfDataset.openDataset(file.toString())) {
+            final Map<String,Object> metadata = Collections.unmodifiableMap(new NetcdfMetadata(dataset).harvest());
+            final List<NetcdfCRS> crs = new ArrayList<>();
+            for (final CoordinateSystem cs : dataset.getCoordinateSystems()) {
+                final NetcdfCRS wrapper;
+                try {
+                    wrapper = NetcdfCRS.wrap(cs);         // Not cached, since the dataset is closed below.
+                } catch (ClassCastException e) {
+                    continue;                       // Axes which are not one-dimensional.
+                }
+                wrapper.getGridToCRS();             // Load the axis coordinate values before to close the file.
+                crs.add(wrapper);
+            }
+            return new Result(file, metadata, Collections.unmodifiableList(crs), null, System.nanoTime() - start);
+        } catch (IOException | RuntimeException e) {
+            return new Result(file, Collections.emptyMap(), Collections.emptyList(), e, System.nanoTime() - start);
+        }
+    }
+}
@@ -21,6 +21,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Objects;
 import java.util.Map;
+import java.util.List;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.Charset;
@@ -41,8 +44,11 @@ import org.opengis.util.InternationalString;
 
 /**
  * A {@link Metadata} implementation backed by a netCDF {@link NetcdfFile} object.
- * All getter methods fetch their values from the netCDF file, so change to the netCDF
- * file content will be immediately reflected in this class.
+ * All getter methods fetch their values from a snapshot of the netCDF global attributes,
+ * taken when first needed and indexed by case-insensitive name. Values parsed from those
+ * attributes (numbers, dates) are remembered, so invoking the same getter many times does
+ * not parse the same attribute many times. Changes to the netCDF file content will be
+ * reflected in this class only after a call to {@link #refresh()}.
  *
  * <p>Unless otherwise noted in the javadoc, this implementation defines a one-to-one relationship
  * between the metadata attributes and netCDF attributes. This simple model allows us to implement
@@ -110,6 +116,48 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
      */
     protected final NetcdfFile file;
 
+    /**
+     * Sentinel value for remembering that an attribute is missing, since {@link ConcurrentHashMap}
+     * does not accept null values.
+     */
+    private static final Object NONE = Void.TYPE;
+
+    /**
+     * The global attributes and the values parsed from them, created when first needed.
+     *
+     * @see #snapshot()
+     * @see #refresh()
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * An index of the netCDF global attributes taken at some point in time, together with
+     * the values parsed from those attributes. The attributes are indexed by their name in
+     * lower case. If many attributes have the same name ignoring case, the first one wins
+     * as with {@link NetcdfFile#findGlobalAttributeIgnoreCase(String)}.
+     */
+    private static final class Snapshot {
+        /** The global attributes in the order they were declared, indexed by lower case name. */
+        final Map<String,Attribute> attributes;
+
+        /** The trimmed string values, or {@link #NONE}. Keys are lower case attribute names. */
+        final Map<String,Object> strings = new ConcurrentHashMap<>();
+
+        /** The numeric values, or {@link #NONE}. Keys are lower case attribute names. */
+        final Map<String,Object> numbers = new ConcurrentHashMap<>();
+
+        /** The parsed dates, or {@link #NONE}. Keys are lower case attribute names. */
+        final Map<String,Object> dates = new ConcurrentHashMap<>();
+
+        /** Builds the index in a single pass over the given attributes. */
+        Snapshot(final List<Attribute> list) {
+            attributes = new LinkedHashMap<>(Math.max(16, 2 * list.size()));
+            for (final Attribute attribute : list) {
+                attributes.putIfAbsent(key(attribute.getShortName()), attribute);
+            }
+        }
+    }
+
     /**
      * Creates a new metadata object as a wrapper around the given netCDF file.
      *
@@ -120,6 +168,42 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
         this.file = file;
     }
 
+    /**
+     * Returns the key to use in the {@link Snapshot} maps for the given attribute name.
+     */
+    private static String key(final String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the snapshot of global attributes, creating it when first needed.
+     * If two threads create a snapshot concurrently, one of them is discarded
+     * but both are equivalent.
+     */
+    private Snapshot snapshot() {
+        Snapshot s = snapshot;
+        if (s == null) {
+            snapshot = s = new Snapshot(file.getGlobalAttributes());
+        }
+        return s;
+    }
+
+    /**
+     * Discards the snapshot of global attributes and all values parsed from them.
+     * This method should be invoked after the attributes of the netCDF file have been
+     * modified, in order to make the changes visible in this metadata object.
+     */
+    public void refresh() {
+        snapshot = null;
+    }
+
+    /**
+     * Returns the global attribute of the given name, ignoring case.
+     */
+    private Attribute findAttribute(final String name) {
+        return snapshot().attributes.get(key(name));
+    }
+
     /**
      * Returns {@code this} wrapped in a singleton.
      */
@@ -138,7 +222,7 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
      * Returns {@code true} if the netCDF file contains an attribute of the given name.
      */
     private boolean hasAttribute(final String name) {
-        return file.findGlobalAttributeIgnoreCase(name) != null;
+        return findAttribute(name) != null;
     }
 
     /**
@@ -150,7 +234,18 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
      * @return the non-empty attribute value, or {@code null} if none.
      */
     private String getString(final String name) {
-        final Attribute attribute = file.findGlobalAttributeIgnoreCase(name);
+        final Snapshot s = snapshot();
+        final Object value = s.strings.computeIfAbsent(key(name), (key) -> {
+            final String text = trimmedString(s.attributes.get(key));
+            return (text != null) ? text : NONE;
+        });
+        return (value != NONE) ? (String) value : null;
+    }
+
+    /**
+     * Returns the value of the given attribute as a trimmed non-empty string, or {@code null} if none.
+     */
+    private static String trimmedString(final Attribute attribute) {
         if (attribute != null && attribute.isString()) {
             String value = attribute.getStringValue();
             if (value != null && !(value = value.trim()).isEmpty()) {
@@ -193,7 +288,20 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
      * @throws NumberFormatException if the number can not be parsed.
      */
     private double getDouble(final String name) throws NumberFormatException {
-        final Attribute attribute = file.findGlobalAttributeIgnoreCase(name);
+        final Snapshot s = snapshot();
+        final Object value = s.numbers.computeIfAbsent(key(name), (key) -> {
+            final double n = toDouble(s.attributes.get(key));
+            return Double.isNaN(n) ? NONE : n;
+        });
+        return (value != NONE) ? (Double) value : Double.NaN;
+    }
+
+    /**
+     * Returns the value of the given attribute as a floating point value, or {@code NaN} if none.
+     *
+     * @throws NumberFormatException if the number can not be parsed.
+     */
+    private static double toDouble(final Attribute attribute) throws NumberFormatException {
         if (attribute != null) {
             if (attribute.isString()) {
                 final String value = attribute.getStringValue();
@@ -210,6 +318,18 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
         return Double.NaN;
     }
 
+    /**
+     * Returns all values of the given numeric attribute. Missing values are NaN.
+     */
+    private static double[] toDoubles(final Attribute attribute) {
+        final double[] values = new double[attribute.getLength()];
+        for (int i=0; i<values.length; i++) {
+            final Number value = attribute.getNumericValue(i);
+            values[i] = (value != null) ? value.doubleValue() : Double.NaN;
+        }
+        return values;
+    }
+
     /**
      * Returns the value of the given attribute as a date.
      * This method invokes {@link #getString(String)}, then parses the value.
@@ -218,11 +338,11 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
      * @return the attribute value, or {@code null} if none or can not be parsed.
      */
     private Date getDate(final String name) {
-        final String value = getString(name);
-        if (value != null) {
-            return parseDate(value);
-        }
-        return null;
+        final Object value = snapshot().dates.computeIfAbsent(key(name), (key) -> {
+            final String text = getString(key);
+            return (text != null) ? parseDate(text) : NONE;
+        });
+        return (value != NONE) ? new Date(((Date) value).getTime()) : null;
     }
 
     /**
@@ -724,6 +844,66 @@ public class NetcdfMetadata implements Metadata, DataIdentification, Identifier,
     // │    Other methods                                                                        │
     // └─────────────────────────────────────────────────────────────────────────────────────────┘
 
+    /**
+     * Returns the values of all global attributes, parsed in a single pass over the attributes.
+     * This method is more efficient than invoking all getter methods when the caller needs most
+     * metadata, for example for building a catalogue. The map keys are the attribute names as
+     * declared in the netCDF file, in declaration order. The map values are:
+     *
+     * <ul>
+     *   <li>{@link Date} for the {@value ACDD#date_created} and {@code "metadata_creation"} attributes,</li>
+     *   <li>{@link Double} for the geographic bounding box attributes and all single-valued numeric attributes,</li>
+     *   <li>{@code double[]} for numeric attributes having more than one value,</li>
+     *   <li>{@link String} for all other attributes.</li>
+     * </ul>
+     *
+     * Values which can not be parsed as a date or a number are returned as strings.
+     * Empty values are omitted. The parsed values are remembered for the getter methods.
+     *
+     * @return the attribute values, in declaration order.
+     */
+    public Map<String,Object> harvest() {
+        final Map<String,Object> properties = new LinkedHashMap<>();
+        for (final Attribute attribute : snapshot().attributes.values()) {
+            final String name = attribute.getShortName();
+            Object value = null;
+            try {
+                if (isDate(name)) {
+                    value = getDate(name);
+                } else if (!attribute.isString() && attribute.getLength() > 1) {
+                    value = toDoubles(attribute);
+                } else if (isNumber(name) || !attribute.isString()) {
+                    final double n = getDouble(name);
+                    if (!Double.isNaN(n)) value = n;
+                }
+            } catch (IllegalArgumentException e) {         // Include NumberFormatException.
+                // Keep the value as a string.
+            }
+            if (value == null) {
+                value = getString(name);
+            }
+            if (value != null) {
+                properties.put(name, value);
+            }
+        }
+        return properties;
+    }
+
+    /**
+     * Returns {@code true} if the given attribute is parsed as a date by this class.
+     */
+    private static boolean isDate(final String name) {
+        return ACDD.date_created.equalsIgnoreCase(name) || "metadata_creation".equalsIgnoreCase(name);
+    }
+
+    /**
+     * Returns {@code true} if the given attribute is parsed as a floating point number by this class.
+     */
+    private static boolean isNumber(final String name) {
+        return ACDD.LON_MIN.equalsIgnoreCase(name) || ACDD.LON_MAX.equalsIgnoreCase(name)
+            || ACDD.LAT_MIN.equalsIgnoreCase(name) || ACDD.LAT_MAX.equalsIgnoreCase(name);
+    }
+
     /**
      * Returns the concatenation of {@linkplain #getAuthority() naming authority},
      * the {@code ':'} character and the {@linkplain #getCode() identifier code}.
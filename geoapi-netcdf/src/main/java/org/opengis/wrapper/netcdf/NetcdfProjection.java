@@ -28,6 +28,7 @@ import ucar.unidata.geoloc.LatLonRect;
 import ucar.unidata.geoloc.LatLonPoint;
 import ucar.unidata.geoloc.LatLonPointImpl;
 import ucar.unidata.geoloc.Projection;
+import ucar.unidata.geoloc.ProjectionImpl;
 import ucar.unidata.geoloc.ProjectionPoint;
 import ucar.unidata.geoloc.ProjectionPointImpl;
 import ucar.unidata.geoloc.projection.ProjectionAdapter;
@@ -63,6 +64,11 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
      */
     private static final long serialVersionUID = 6497844299422453709L;
 
+    /**
+     * Maximal number of points to transform in a single call to the netCDF bulk transformation methods.
+     */
+    private static final int CHUNK_SIZE = 512;
+
     /**
      * The source CRS, which determine the number of source dimensions.
      *
@@ -146,6 +152,12 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
     /**
      * Returns the netCDF projection wrapped by this adapter.
      *
+     * <p>The returned object is the projection used by this adapter, not a copy. Projections created by
+     * {@link NetcdfTransformFactory#createParameterizedTransform(org.opengis.parameter.ParameterValueGroup)}
+     * are cached and shared by all callers, so the netCDF projection returned by this method shall not be
+     * modified (for example by {@code setName(…)} or {@code setDefaultMapArea(…)}). Callers needing a modified
+     * projection should modify a copy created by {@link ProjectionImpl#constructCopy()}.</p>
+     *
      * @return the netCDF projection object.
      */
     @Override
@@ -351,7 +363,7 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
      * @param  numPts  the number of points to transform.
      * @return {@code true} if the source array needs to be copied.
      */
-    private static boolean needsCopy(final int srcOff, final int srcDim, final int dstOff, final int dstDim, final int numPts) {
+    static boolean needsCopy(final int srcOff, final int srcDim, final int dstOff, final int dstDim, final int numPts) {
         if (numPts <= 1) {
             return false;
         }
@@ -371,46 +383,84 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
     }
 
     /**
-     * Transforms an arbitrary amount of points from the given source array to the given
-     * destination array. This method delegates to one of the following methods for each
-     * point:
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     * Points are copied in chunks of at most {@value #CHUNK_SIZE} points in scratch arrays, which are given
+     * to one of the following bulk methods:
      *
      * <ul>
-     *   <li>{@link Projection#latLonToProj(LatLonPoint, ProjectionPointImpl)} for the forward projection.</li>
-     *   <li>{@link Projection#projToLatLon(ProjectionPoint, LatLonPointImpl)} for the inverse projection.</li>
+     *   <li>{@link ProjectionImpl#latLonToProj(double[][], double[][], int, int)} for the forward projection.</li>
+     *   <li>{@link ProjectionImpl#projToLatLon(double[][], double[][])} for the inverse projection.</li>
      * </ul>
+     *
+     * Consequently the number of objects allocated by this method does not depend on the number of points.
      */
-    @Override
-    public void transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts)
-            throws TransformException
+    private void transform(double[] srcDbl, float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
     {
         final int srcDim = getSourceDimensions();
         final int dstDim = getTargetDimensions();
-        if (srcPts == dstPts && needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
-            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + numPts*srcDim);
+        if ((srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) && needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
+            if (srcDbl != null) {
+                srcDbl = Arrays.copyOfRange(srcDbl, srcOff, srcOff + numPts*srcDim);
+            } else {
+                srcFlt = Arrays.copyOfRange(srcFlt, srcOff, srcOff + numPts*srcDim);
+            }
             srcOff = 0;
         }
-        final LatLonPointImpl     src = new LatLonPointImpl();
-        final ProjectionPointImpl dst = new ProjectionPointImpl();
-        while (--numPts >= 0) {
+        final ProjectionImpl impl = ProjectionAdapter.factory(projection);
+        double[][] from = null, to = null;
+        while (numPts > 0) {
+            final int n = Math.min(numPts, CHUNK_SIZE);
+            if (from == null || from[0].length != n) {
+                // The bulk methods process all array elements, so the arrays length must be the number of points.
+                from = new double[2][n];
+                to   = new double[2][n];
+            }
+            final double[] x = from[0];
+            final double[] y = from[1];
+            for (int i=0; i<n; i++) {
+                if (srcDbl != null) {
+                    x[i] = srcDbl[srcOff  ];
+                    y[i] = srcDbl[srcOff+1];
+                } else {
+                    x[i] = srcFlt[srcOff  ];
+                    y[i] = srcFlt[srcOff+1];
+                }
+                srcOff += srcDim;
+            }
+            /*
+             * The source coordinates are (longitude, latitude) for the forward projection,
+             * or (x,y) for the inverse projection. The target coordinates are stored in the
+             * same order, so they need to be reordered only for the inverse projection.
+             */
+            final double[] u, v;
             if (isInverse) {
-                dst.setLocation(srcPts[srcOff], srcPts[srcOff+1]);
-                final LatLonPoint pt = projection.projToLatLon(dst, src);
-                dstPts[dstOff]   = pt.getLongitude();
-                dstPts[dstOff+1] = pt.getLatitude();
+                impl.projToLatLon(from, to);
+                u = to[ProjectionImpl.INDEX_LON];
+                v = to[ProjectionImpl.INDEX_LAT];
             } else {
-                src.set(srcPts[srcOff+1], srcPts[srcOff]);                          // (lat,lon)
-                final ProjectionPoint pt = projection.latLonToProj(src, dst);
-                dstPts[dstOff  ] = pt.getX();
-                dstPts[dstOff+1] = pt.getY();
+                impl.latLonToProj(from, to, 1, 0);
+                u = to[ProjectionImpl.INDEX_X];
+                v = to[ProjectionImpl.INDEX_Y];
+            }
+            for (int i=0; i<n; i++) {
+                if (dstDbl != null) {
+                    dstDbl[dstOff  ] = u[i];
+                    dstDbl[dstOff+1] = v[i];
+                } else {
+                    dstFlt[dstOff  ] = (float) u[i];
+                    dstFlt[dstOff+1] = (float) v[i];
+                }
+                dstOff += dstDim;
             }
-            srcOff += srcDim;
-            dstOff += dstDim;
+            numPts -= n;
         }
     }
 
     /**
-     * Transforms a list of coordinate point ordinal values.
+     * Transforms a list of coordinate point ordinal values. This method processes the points
+     * in chunks using the bulk transformation methods of the netCDF projection.
      *
      * @param  srcPts  the array containing the source point coordinates.
      * @param  srcOff  the offset to the first point to be transformed in the source array.
@@ -420,28 +470,15 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
      * @throws TransformException if a point can not be transformed.
      */
     @Override
-    public void transform(float[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
             throws TransformException
     {
-        final int srcDim = getSourceDimensions();
-        final int dstDim = getTargetDimensions();
-        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
-        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
-        if (srcPts == dstPts && needsCopy(srcOff, srcDim, dstOff, dstDim, numPts)) {
-            srcPts = Arrays.copyOfRange(srcPts, srcOff, srcOff + srcDim*numPts);
-            srcOff = 0;
-        }
-        while (--numPts >= 0) {
-            arraycopy(srcPts, srcOff, ptSrc.ordinates, 0, srcDim);
-            transform(ptSrc, ptDst);
-            arraycopy(ptDst.ordinates, 0, dstPts, dstOff, dstDim);
-            srcOff += srcDim;
-            dstOff += dstDim;
-        }
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
     }
 
     /**
-     * Transforms a list of coordinate point ordinal values.
+     * Transforms a list of coordinate point ordinal values. This method processes the points
+     * in chunks using the bulk transformation methods of the netCDF projection.
      *
      * @param  srcPts  the array containing the source point coordinates.
      * @param  srcOff  the offset to the first point to be transformed in the source array.
@@ -451,72 +488,53 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
      * @throws TransformException if a point can not be transformed.
      */
     @Override
-    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, int numPts)
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
             throws TransformException
     {
-        final int srcDim = getSourceDimensions();
-        final int dstDim = getTargetDimensions();
-        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
-        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
-        while (--numPts >= 0) {
-            arraycopy(srcPts, srcOff, ptSrc.ordinates, 0, srcDim);
-            transform(ptSrc, ptDst);
-            System.arraycopy(ptDst.ordinates, 0, dstPts, dstOff, dstDim);
-            srcOff += srcDim;
-            dstOff += dstDim;
-        }
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
     }
 
     /**
-     * Transforms a list of coordinate point ordinal values.
+     * Transforms a list of coordinate point ordinal values. This method processes the points
+     * in chunks using the bulk transformation methods of the netCDF projection.
      *
      * @param  srcPts  the array containing the source point coordinates.
      * @param  srcOff  the offset to the first point to be transformed in the source array.
-     * @param  dstPts  the array into which the transformed point coordinates are returned. May be the same than {@code srcPts}.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
      * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
-     * @param  numPts the number of point objects to be transformed.
+     * @param  numPts  the number of point objects to be transformed.
      * @throws TransformException if a point can not be transformed.
      */
     @Override
-    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, int numPts)
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
             throws TransformException
     {
-        final int srcDim = getSourceDimensions();
-        final int dstDim = getTargetDimensions();
-        final SimpleDirectPosition ptSrc = new SimpleDirectPosition(srcDim);
-        final SimpleDirectPosition ptDst = new SimpleDirectPosition(dstDim);
-        while (--numPts >= 0) {
-            System.arraycopy(srcPts, srcOff, ptSrc.ordinates, 0, srcDim);
-            transform(ptSrc, ptDst);
-            arraycopy(ptDst.ordinates, 0, dstPts, dstOff, dstDim);
-            srcOff += srcDim;
-            dstOff += dstDim;
-        }
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
     }
 
     /**
-     * Like {@link System#arraycopy(Object, int, Object, int, int)}, but cast {@code float}
-     * to {@code double} during the copy operation.
-     */
-    private static void arraycopy(float[] srcPts, int srcOff, double[] dstPts, int dstOff, int length) {
-        while (--length >= 0) {
-            dstPts[dstOff++] = srcPts[srcOff++];
-        }
-    }
-
-    /**
-     * Like {@link System#arraycopy(Object, int, Object, int, int)}, but cast {@code double}
-     * to {@code float} during the copy operation.
+     * Transforms a list of coordinate point ordinal values. This method processes the points
+     * in chunks using the bulk transformation methods of the netCDF projection.
+     *
+     * @param  srcPts  the array containing the source point coordinates.
+     * @param  srcOff  the offset to the first point to be transformed in the source array.
+     * @param  dstPts  the array into which the transformed point coordinates are returned.
+     * @param  dstOff  the offset to the location of the first transformed point that is stored in the destination array.
+     * @param  numPts  the number of point objects to be transformed.
+     * @throws TransformException if a point can not be transformed.
      */
-    private static void arraycopy(double[] srcPts, int srcOff, float[] dstPts, int dstOff, int length) {
-        while (--length >= 0) {
-            dstPts[dstOff++] = (float) srcPts[srcOff++];
-        }
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
     }
 
     /**
      * Transforms the specified shape. The default implementation returns a new shape with
-     * the transform of all control points.
+     * the transform of all control points. Since map projections are non-linear, straight
+     * lines in the source shape are usually curves in the target space. For a shape which
+     * approximates those curves, see {@link #createTransformedShape(Shape, double)}.
      *
      * @param  shape  the Shape to transform.
      * @return the transformed shape.
@@ -542,6 +560,223 @@ public class NetcdfProjection extends NetcdfIdentifiedObject
         return path;
     }
 
+    /**
+     * Transforms the specified shape, adding intermediate points where needed for approximating
+     * the curvature introduced by the map projection. Each segment (straight line or Bézier curve)
+     * of the source shape is subdivided recursively: the middle point of a segment is projected and
+     * compared to the middle of the straight line between the projected end points. If the distance
+     * exceeds the given tolerance, then the middle point is added to the path and both halves are
+     * subdivided in the same way. Segments which are almost straight after projection are therefore
+     * represented by few points, while strongly curved segments receive more points.
+     *
+     * <p>The returned shape contains only straight lines. The number of subdivisions of a single
+     * source segment is limited to {@value #MAX_SUBDIVISION_DEPTH} levels of recursivity.</p>
+     *
+     * @param  shape      the Shape to transform.
+     * @param  tolerance  maximal distance between the returned shape and the projected curves,
+     *                    in units of the target coordinates (kilometres for the forward projection).
+     * @return the transformed shape.
+     * @throws IllegalArgumentException if the given tolerance is not strictly positive.
+     * @throws TransformException if a transform failed.
+     */
+    public Shape createTransformedShape(final Shape shape, final double tolerance) throws TransformException {
+        if (!(tolerance > 0)) {
+            throw new IllegalArgumentException("The tolerance shall be strictly positive, but got " + tolerance + '.');
+        }
+        final PathIterator it = shape.getPathIterator(null);
+        final Densifier densifier = new Densifier(new Path2D.Double(it.getWindingRule()), tolerance);
+        final double[] b = new double[6];
+        while (!it.isDone()) {
+            final int mode = it.currentSegment(b);
+            switch (mode) {
+                case PathIterator.SEG_CLOSE:   densifier.closePath();   break;
+                case PathIterator.SEG_MOVETO:  densifier.moveTo(b);     break;
+                case PathIterator.SEG_LINETO:  densifier.segment(b, 1); break;
+                case PathIterator.SEG_QUADTO:  densifier.segment(b, 2); break;
+                case PathIterator.SEG_CUBICTO: densifier.segment(b, 3); break;
+                default: throw new AssertionError(mode);
+            }
+            it.next();
+        }
+        return densifier.path;
+    }
+
+    /**
+     * Maximal depth of recursive subdivisions of a single segment in
+     * {@link #createTransformedShape(Shape, double)}.
+     */
+    private static final int MAX_SUBDIVISION_DEPTH = 12;
+
+    /**
+     * Builds the path returned by {@link NetcdfProjection#createTransformedShape(Shape, double)}.
+     * This class keeps track of the current point in both the source and target spaces, so each
+     * point is projected only once.
+     */
+    private final class Densifier {
+        /**
+         * The path in target coordinates.
+         */
+        final Path2D path;
+
+        /**
+         * The square of the tolerance given by the user.
+         */
+        private final double toleranceSq;
+
+        /**
+         * The source coordinates of the current segment: the start point followed by up to three
+         * control points. The number of valid points after the start point is given by {@link #order}.
+         */
+        private final double[] control = new double[8];
+
+        /**
+         * The number of control points after the start point: 1 for straight lines,
+         * 2 for quadratic curves and 3 for cubic curves.
+         */
+        private int order;
+
+        /**
+         * A buffer for transforming a single point.
+         */
+        private final double[] buffer = new double[2];
+
+        /**
+         * The geographic point given to or returned by the netCDF projection, reused for all points.
+         */
+        private final LatLonPointImpl latLon = new LatLonPointImpl();
+
+        /**
+         * The projected point given to or returned by the netCDF projection, reused for all points.
+         */
+        private final ProjectionPointImpl xy = new ProjectionPointImpl();
+
+        /**
+         * The current point in source coordinates ({@code x}, {@code y}) and in target coordinates
+         * ({@code tx}, {@code ty}), together with the point of the last "move to" operation.
+         */
+        private double x, y, tx, ty, moveX, moveY, moveTX, moveTY;
+
+        /**
+         * Creates a new densifier which will append points to the given path.
+         */
+        Densifier(final Path2D path, final double tolerance) {
+            this.path = path;
+            toleranceSq = tolerance * tolerance;
+        }
+
+        /**
+         * Projects the point in {@link #buffer} in-place. This method uses the single-point methods
+         * of the netCDF projection with reusable point objects, since the bulk transformation methods
+         * would allocate arrays for each call.
+         */
+        private void project() {
+            if (isInverse) {
+                xy.setLocation(buffer[0], buffer[1]);
+                final LatLonPoint pt = projection.projToLatLon(xy, latLon);
+                buffer[0] = pt.getLongitude();
+                buffer[1] = pt.getLatitude();
+            } else {
+                latLon.set(buffer[1], buffer[0]);
+                final ProjectionPoint pt = projection.latLonToProj(latLon, xy);
+                buffer[0] = pt.getX();
+                buffer[1] = pt.getY();
+            }
+        }
+
+        /**
+         * Starts a new sub-path at the source point given by the two first array elements.
+         */
+        void moveTo(final double[] b) throws TransformException {
+            moveX = x = buffer[0] = b[0];
+            moveY = y = buffer[1] = b[1];
+            project();
+            moveTX = tx = buffer[0];
+            moveTY = ty = buffer[1];
+            path.moveTo(tx, ty);
+        }
+
+        /**
+         * Closes the current sub-path, densifying the implicit straight line back to its first point.
+         */
+        void closePath() throws TransformException {
+            if (x != moveX || y != moveY) {
+                control[0] = x;     control[2] = moveX;
+                control[1] = y;     control[3] = moveY;
+                order = 1;
+                subdivide(0, 1, tx, ty, moveTX, moveTY, 0);
+            }
+            path.closePath();
+            x  = moveX;   tx = moveTX;
+            y  = moveY;   ty = moveTY;
+        }
+
+        /**
+         * Appends a segment from the current point to the last of the given source control points.
+         *
+         * @param  b  the control points as returned by {@link PathIterator#currentSegment(double[])}.
+         * @param  n  the number of control points: 1, 2 or 3.
+         */
+        void segment(final double[] b, final int n) throws TransformException {
+            control[0] = x;
+            control[1] = y;
+            System.arraycopy(b, 0, control, 2, 2*n);
+            order = n;
+            x = buffer[0] = b[2*n - 2];
+            y = buffer[1] = b[2*n - 1];
+            project();
+            final double ex = buffer[0];
+            final double ey = buffer[1];
+            subdivide(0, 1, tx, ty, ex, ey, 0);
+            path.lineTo(ex, ey);
+            tx = ex;
+            ty = ey;
+        }
+
+        /**
+         * Stores in {@link #buffer} the source point at the given parametric position
+         * of the current segment, using the Bézier formula of the segment order.
+         */
+        private void evaluate(final double t) {
+            final double[] c = control;
+            final double s = 1 - t;
+            for (int i=0; i<2; i++) {
+                final double v;
+                switch (order) {
+                    case 1:  v = s*c[i] + t*c[i+2]; break;
+                    case 2:  v = s*s*c[i] + 2*s*t*c[i+2] + t*t*c[i+4]; break;
+                    case 3:  v = s*s*s*c[i] + 3*s*t*(s*c[i+2] + t*c[i+4]) + t*t*t*c[i+6]; break;
+                    default: throw new AssertionError(order);
+                }
+                buffer[i] = v;
+            }
+        }
+
+        /**
+         * Appends to the path the points needed between the parametric positions {@code t0} and
+         * {@code t1} of the current segment. The projected points at those positions are given.
+         * This method does not append the end point, which is the caller responsibility.
+         */
+        private void subdivide(final double t0, final double t1, final double ax, final double ay,
+                final double bx, final double by, final int depth) throws TransformException
+        {
+            if (depth >= MAX_SUBDIVISION_DEPTH) {
+                return;
+            }
+            final double tm = 0.5 * (t0 + t1);
+            evaluate(tm);
+            project();
+            final double mx = buffer[0];
+            final double my = buffer[1];
+            final double dx = mx - 0.5 * (ax + bx);
+            final double dy = my - 0.5 * (ay + by);
+            if (dx*dx + dy*dy > toleranceSq) {              // False if NaN, which stops the recursivity.
+                subdivide(t0, tm, ax, ay, mx, my, depth + 1);
+                path.lineTo(mx, my);
+                subdivide(tm, t1, mx, my, bx, by, depth + 1);
+            }
+        }
+    }
+
     /**
      * Gets the derivative of this transform at a point. This method ensures that the given
      * position is two-dimensional, then delegates to {@link #derivative(Point2D)}.
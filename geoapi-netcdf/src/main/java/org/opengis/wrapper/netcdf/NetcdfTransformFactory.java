@@ -25,6 +25,7 @@ import ucar.unidata.geoloc.projection.*;                // For javadoc.
 import org.opengis.util.FactoryException;
 import org.opengis.util.NoSuchIdentifierException;
 import org.opengis.metadata.citation.Citation;
+import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.parameter.ParameterNotFoundException;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
@@ -142,6 +143,24 @@ public class NetcdfTransformFactory implements MathTransformFactory {
      */
     private final Set<OperationMethod> methods;
 
+    /**
+     * Maximal number of projections to retain in the {@link #projections} cache.
+     */
+    private static final int CACHE_CAPACITY = 100;
+
+    /**
+     * The projections created by {@link #createParameterizedTransform(ParameterValueGroup)},
+     * keyed by {@link ProjectionProvider#cacheKey(ParameterValueGroup)}. The eldest entries
+     * in access order are discarded when the capacity is exceeded. All accesses to this map,
+     * and to the statistics fields below, shall be synchronized on this map.
+     */
+    private final Map<String,NetcdfProjection> projections;
+
+    /**
+     * Number of cache hits, misses and evictions in the {@link #projections} map.
+     */
+    private long hits, misses, evictions;
+
     /**
      * Creates a new factory.
      */
@@ -162,6 +181,15 @@ public class NetcdfTransformFactory implements MathTransformFactory {
         add(new ProjectionProvider.UTM                 (existings));
         add(new ProjectionProvider.Perspective         (existings));
         methods = Collections.unmodifiableSet(new LinkedHashSet<OperationMethod>(providers.values()));
+        projections = new LinkedHashMap<String,NetcdfProjection>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<String,NetcdfProjection> eldest) {
+                if (size() > CACHE_CAPACITY) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
     }
 
     /**
@@ -241,6 +269,11 @@ public class NetcdfTransformFactory implements MathTransformFactory {
      *   <li>The domain shall be a subset of {[-180,180)×(-90,90)}.</li>
      * </ul>
      *
+     * <p>Projections are cached: invoking this method many times with equal parameter values
+     * returns the same {@link NetcdfProjection} instance. See {@link #getCacheStatistics()}.
+     * Since that instance is shared, the netCDF projection returned by its
+     * {@link NetcdfProjection#delegate() delegate()} method shall not be modified.</p>
+     *
      * @param  parameters  the parameter values.
      * @return the parameterized transform.
      * @throws FactoryException if the object creation failed. This exception is thrown
@@ -253,7 +286,25 @@ public class NetcdfTransformFactory implements MathTransformFactory {
         final String method = parameters.getDescriptor().getName().getCode();
         final ProjectionProvider<?> provider = providers.get(method);
         if (provider != null) try {
-            return new NetcdfProjection(provider.createProjection(parameters), provider, null, null);
+            final String key = provider.cacheKey(parameters);
+            synchronized (projections) {
+                final NetcdfProjection cached = projections.get(key);
+                if (cached != null) {
+                    hits++;
+                    return cached;
+                }
+                misses++;
+            }
+            /*
+             * Create the projection outside the synchronized block since it may be costly.
+             * If another thread created the same projection in the meantime, keep the one
+             * created by the other thread so that all callers share the same instance.
+             */
+            final NetcdfProjection projection = new NetcdfProjection(provider.createProjection(parameters), provider, null, null);
+            synchronized (projections) {
+                final NetcdfProjection existing = projections.putIfAbsent(key, projection);
+                return (existing != null) ? existing : projection;
+            }
         } catch (ParameterNotFoundException e) {
             throw new FactoryException("Illegal parameters for the \"" + method +
                     "\" projection: " + e.getLocalizedMessage(), e);
@@ -262,26 +313,74 @@ public class NetcdfTransformFactory implements MathTransformFactory {
     }
 
     /**
-     * Not yet implemented.
+     * Returns statistics about the cache of projections created by
+     * {@link #createParameterizedTransform(ParameterValueGroup)}.
+     * The map contains the {@code "hits"}, {@code "misses"}, {@code "evictions"}
+     * and {@code "size"} entries.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    public Map<String,Long> getCacheStatistics() {
+        final Map<String,Long> stats = new LinkedHashMap<>(8);
+        synchronized (projections) {
+            stats.put("hits",      hits);
+            stats.put("misses",    misses);
+            stats.put("evictions", evictions);
+            stats.put("size",      (long) projections.size());
+        }
+        return stats;
+    }
+
+    /**
+     * Creates an affine transform from a matrix. The last row of the matrix shall be [0 0 … 0 1];
+     * projective transforms are not supported.
+     *
+     * @param  matrix  the matrix used to define the affine transform.
+     * @return the affine transform.
+     * @throws FactoryException if the matrix is not affine.
      */
     @Override
     public MathTransform createAffineTransform(final Matrix matrix) throws FactoryException {
-        throw new FactoryException("Not supported yet.");
+        try {
+            return new LinearTransform(matrix);
+        } catch (IllegalArgumentException e) {
+            throw new FactoryException(e.getLocalizedMessage(), e);
+        }
     }
 
     /**
-     * Not yet implemented.
+     * Creates a transform by concatenating two existing transforms.
+     * The returned transform applies all steps in a single pass over the coordinate arrays:
+     * identity transforms are omitted, consecutive affine transforms are merged in a single
+     * matrix, and other transforms (typically map projections) are applied in place in a
+     * scratch buffer between the affine steps.
+     *
+     * @param  transform1  the first transform to apply to points.
+     * @param  transform2  the second transform to apply to points.
+     * @return the concatenated transform.
+     * @throws FactoryException if the transforms can not be concatenated.
      */
     @Override
     public MathTransform createConcatenatedTransform(final MathTransform transform1,
                                                      final MathTransform transform2)
             throws FactoryException
     {
-        throw new FactoryException("Not supported yet.");
+        try {
+            return PipelineTransform.create(transform1, transform2);
+        } catch (MismatchedDimensionException e) {
+            throw new FactoryException(e.getLocalizedMessage(), e);
+        }
     }
 
     /**
-     * Not yet implemented.
+     * Creates a transform which passes through a subset of coordinates to another transform.
+     * If the sub-transform is affine, then the returned transform is affine too.
+     *
+     * @param  firstAffectedCoordinate  the lowest index of the affected coordinates.
+     * @param  subTransform             transform to use for affected coordinates.
+     * @param  numTrailingCoordinates   number of trailing coordinates to pass through.
+     * @return a pass through transform.
+     * @throws FactoryException if the arguments are invalid.
      */
     @Override
     public MathTransform createPassThroughTransform(final int firstAffectedCoordinate,
@@ -289,7 +388,11 @@ public class NetcdfTransformFactory implements MathTransformFactory {
                                                     final int numTrailingCoordinates)
             throws FactoryException
     {
-        throw new FactoryException("Not supported yet.");
+        try {
+            return PassThroughTransform.create(firstAffectedCoordinate, subTransform, numTrailingCoordinates);
+        } catch (IllegalArgumentException e) {
+            throw new FactoryException(e.getLocalizedMessage(), e);
+        }
     }
 
     /**
@@ -0,0 +1,375 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.io.Serializable;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * A transform which applies a sub-transform on a range of coordinates and copies the other
+ * coordinates unchanged, created by {@link NetcdfTransformFactory#createPassThroughTransform
+ * NetcdfTransformFactory.createPassThroughTransform(…)}. This is typically used for applying
+ * a map projection on the horizontal coordinates of a three- or four-dimensional CRS.
+ *
+ * <p>Points are processed in chunks of at most {@value #CHUNK_SIZE} points: the coordinates
+ * of each chunk given to the sub-transform are gathered in a scratch buffer, transformed in
+ * a single call, then written in the destination array together with the other coordinates.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class PassThroughTransform implements MathTransform, Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = -1673997634240223449L;
+
+    /**
+     * Maximal number of points to give in a single call to the sub-transform.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * Index of the first coordinate affected by the sub-transform.
+     */
+    private final int firstAffectedCoordinate;
+
+    /**
+     * Number of coordinates after the ones affected by the sub-transform.
+     */
+    private final int numTrailingCoordinates;
+
+    /**
+     * The transform to apply on the affected coordinates.
+     */
+    private final MathTransform subTransform;
+
+    /**
+     * The inverse transform, created when first needed.
+     */
+    private transient PassThroughTransform inverse;
+
+    /**
+     * Creates a new pass-through transform. Callers shall use
+     * {@link #create(int, MathTransform, int)} instead.
+     */
+    private PassThroughTransform(final int firstAffectedCoordinate, final MathTransform subTransform,
+                                 final int numTrailingCoordinates)
+    {
+        this.firstAffectedCoordinate = firstAffectedCoordinate;
+        this.subTransform            = subTransform;
+        this.numTrailingCoordinates  = numTrailingCoordinates;
+    }
+
+    /**
+     * Creates a transform which applies the given sub-transform on a range of coordinates.
+     * If the sub-transform is affine, then this method returns an affine transform of
+     * larger dimension instead of a pass-through transform.
+     *
+     * @param  firstAffectedCoordinate  index of the first coordinate affected by the sub-transform.
+     * @param  subTransform             the transform to apply on the affected coordinates.
+     * @param  numTrailingCoordinates   number of coordinates after the ones affected by the sub-transform.
+     * @return the pass-through transform.
+     * @throws IllegalArgumentException if a number of coordinates is negative.
+     */
+    static MathTransform create(final int firstAffectedCoordinate, final MathTransform subTransform,
+                                final int numTrailingCoordinates)
+    {
+        Objects.requireNonNull(subTransform);
+        if (firstAffectedCoordinate < 0 || numTrailingCoordinates < 0) {
+            throw new IllegalArgumentException("The number of pass-through coordinates can not be negative.");
+        }
+        if (firstAffectedCoordinate == 0 && numTrailingCoordinates == 0) {
+            return subTransform;
+        }
+        if (subTransform instanceof LinearTransform) {
+            final int passThrough = firstAffectedCoordinate + numTrailingCoordinates;
+            final SimpleMatrix sub = ((LinearTransform) subTransform).getMatrix();
+            final int subSrc = sub.getNumCol() - 1;
+            final int subTgt = sub.getNumRow() - 1;
+            final SimpleMatrix matrix = new SimpleMatrix(subTgt + passThrough + 1, subSrc + passThrough + 1);
+            matrix.setZero();
+            for (int i=0; i<firstAffectedCoordinate; i++) {
+                matrix.setElement(i, i, 1);
+            }
+            for (int i=0; i<numTrailingCoordinates; i++) {
+                matrix.setElement(firstAffectedCoordinate + subTgt + i, firstAffectedCoordinate + subSrc + i, 1);
+            }
+            for (int j=0; j<subTgt; j++) {
+                for (int i=0; i<subSrc; i++) {
+                    matrix.setElement(firstAffectedCoordinate + j, firstAffectedCoordinate + i, sub.getElement(j, i));
+                }
+                matrix.setElement(firstAffectedCoordinate + j, matrix.getNumCol() - 1, sub.getElement(j, subSrc));
+            }
+            matrix.setElement(matrix.getNumRow() - 1, matrix.getNumCol() - 1, 1);
+            return new LinearTransform(matrix);
+        }
+        return new PassThroughTransform(firstAffectedCoordinate, subTransform, numTrailingCoordinates);
+    }
+
+    /**
+     * Returns the number of source dimensions.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return firstAffectedCoordinate + subTransform.getSourceDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Returns the number of target dimensions.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return firstAffectedCoordinate + subTransform.getTargetDimensions() + numTrailingCoordinates;
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc  the coordinate point to be transformed.
+     * @param  ptDst  the coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, DirectPosition ptDst) throws TransformException {
+        final int srcDim = getSourceDimensions();
+        final int tgtDim = getTargetDimensions();
+        if (ptSrc.getDimension() != srcDim || (ptDst != null && ptDst.getDimension() != tgtDim)) {
+            throw new MismatchedDimensionException("Expected positions of dimension " + srcDim + " and " + tgtDim + '.');
+        }
+        final double[] result = new double[tgtDim];
+        transform(ptSrc.getCoordinate(), 0, result, 0, 1);
+        if (ptDst == null) {
+            ptDst = new SimpleDirectPosition(tgtDim);
+        }
+        for (int j=0; j<tgtDim; j++) {
+            ptDst.setOrdinate(j, result[j]);
+        }
+        return ptDst;
+    }
+
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     */
+    private void transform(double[] srcDbl, float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int tgtDim = getTargetDimensions();
+        if ((srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) &&
+                NetcdfProjection.needsCopy(srcOff, srcDim, dstOff, tgtDim, numPts))
+        {
+            if (srcDbl != null) {
+                srcDbl = Arrays.copyOfRange(srcDbl, srcOff, srcOff + numPts*srcDim);
+            } else {
+                srcFlt = Arrays.copyOfRange(srcFlt, srcOff, srcOff + numPts*srcDim);
+            }
+            srcOff = 0;
+        }
+        final int subSrc = subTransform.getSourceDimensions();
+        final int subTgt = subTransform.getTargetDimensions();
+        final int chunk  = Math.min(numPts, CHUNK_SIZE);
+        final double[] source = new double[chunk * subSrc];
+        final double[] target = new double[chunk * subTgt];
+        final double[] point  = new double[srcDim];
+        while (numPts > 0) {
+            final int n = Math.min(numPts, CHUNK_SIZE);
+            /*
+             * Gather the coordinates to give to the sub-transform, then transform them in one call.
+             */
+            for (int k=0, p=0; p<n; p++) {
+                int s = srcOff + p*srcDim + firstAffectedCoordinate;
+                for (int i=0; i<subSrc; i++) {
+                    source[k++] = (srcDbl != null) ? srcDbl[s++] : srcFlt[s++];
+                }
+            }
+            subTransform.transform(source, 0, target, 0, n);
+            /*
+             * Write the leading coordinates, the transformed coordinates and the trailing coordinates
+             * of each point. The source point is fully read before its target point is written.
+             */
+            for (int k=0, p=0; p<n; p++) {
+                for (int i=0; i<srcDim; i++) {
+                    point[i] = (srcDbl != null) ? srcDbl[srcOff++] : srcFlt[srcOff++];
+                }
+                for (int i=0; i<tgtDim; i++) {
+                    final double value;
+                    if (i < firstAffectedCoordinate) {
+                        value = point[i];
+                    } else if (i < firstAffectedCoordinate + subTgt) {
+                        value = target[k++];
+                    } else {
+                        value = point[i + subSrc - subTgt];
+                    }
+                    if (dstDbl != null) {
+                        dstDbl[dstOff++] = value;
+                    } else {
+                        dstFlt[dstOff++] = (float) value;
+                    }
+                }
+            }
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. The derivative of the sub-transform
+     * is inserted in an identity matrix for the pass-through coordinates.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative can not be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        final int subSrc = subTransform.getSourceDimensions();
+        final SimpleDirectPosition subPoint = new SimpleDirectPosition(subSrc);
+        for (int i=0; i<subSrc; i++) {
+            subPoint.setOrdinate(i, point.getOrdinate(firstAffectedCoordinate + i));
+        }
+        final Matrix sub = subTransform.derivative(subPoint);
+        final int subTgt = sub.getNumRow();
+        final SimpleMatrix matrix = new SimpleMatrix(getTargetDimensions(), getSourceDimensions());
+        matrix.setZero();
+        for (int i=0; i<firstAffectedCoordinate; i++) {
+            matrix.setElement(i, i, 1);
+        }
+        for (int i=0; i<numTrailingCoordinates; i++) {
+            matrix.setElement(firstAffectedCoordinate + subTgt + i, firstAffectedCoordinate + subSrc + i, 1);
+        }
+        for (int j=0; j<subTgt; j++) {
+            for (int i=0; i<subSrc; i++) {
+                matrix.setElement(firstAffectedCoordinate + j, firstAffectedCoordinate + i, sub.getElement(j, i));
+            }
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the inverse of this transform, which applies the inverse of the sub-transform.
+     *
+     * @throws NoninvertibleTransformException if the sub-transform is not invertible.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            final PassThroughTransform tr = new PassThroughTransform(
+                    firstAffectedCoordinate, subTransform.inverse(), numTrailingCoordinates);
+            tr.inverse = this;
+            inverse = tr;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code true} if the sub-transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        return subTransform.isIdentity();
+    }
+
+    /**
+     * Unsupported operation.
+     *
+     * @throws UnsupportedOperationException always thrown.
+     */
+    @Override
+    public String toWKT() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns {@code true} if this transform is equal to the given object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof PassThroughTransform) {
+            final PassThroughTransform other = (PassThroughTransform) object;
+            return firstAffectedCoordinate == other.firstAffectedCoordinate
+                && numTrailingCoordinates  == other.numTrailingCoordinates
+                && subTransform.equals(other.subTransform);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return subTransform.hashCode() + 31*(firstAffectedCoordinate + 31*numTrailingCoordinates);
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.util.List;
+import java.util.Arrays;
+import java.util.ArrayList;
+import java.io.Serializable;
+import javax.vecmath.GMatrix;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * A chain of transforms applied in a single pass over the coordinate arrays, created by
+ * {@link NetcdfTransformFactory#createConcatenatedTransform(MathTransform, MathTransform)}.
+ * Consecutive affine steps are merged in a single matrix at construction time, so a typical
+ * <cite>grid → projected → geographic</cite> pipeline has only three steps: the affine
+ * <cite>grid to CRS</cite> conversion, the inverse projection and an optional affine
+ * conversion of the geographic coordinates.
+ *
+ * <p>Points are processed in chunks of at most {@value #CHUNK_SIZE} points. The first step reads
+ * directly from the source array, the last step writes directly in the destination array, and
+ * the intermediate steps alternate between two scratch buffers allocated once per call.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class PipelineTransform implements MathTransform, Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = 7356232807386829548L;
+
+    /**
+     * Maximal number of points to transform in a single call to each step.
+     */
+    private static final int CHUNK_SIZE = 512;
+
+    /**
+     * The transforms to apply, in order. This array contains at least two elements,
+     * and never two consecutive {@link LinearTransform} instances.
+     */
+    private final MathTransform[] steps;
+
+    /**
+     * The maximal number of dimensions of intermediate coordinates.
+     */
+    private final int maxDim;
+
+    /**
+     * The inverse transform, created when first needed.
+     */
+    private transient PipelineTransform inverse;
+
+    /**
+     * Creates a new pipeline for the given steps. Callers shall use
+     * {@link #create(MathTransform, MathTransform)} instead.
+     */
+    private PipelineTransform(final MathTransform[] steps) {
+        this.steps = steps;
+        int max = 0;
+        for (int i=1; i<steps.length; i++) {
+            max = Math.max(max, steps[i].getSourceDimensions());
+        }
+        maxDim = max;
+    }
+
+    /**
+     * Returns the concatenation of the two given transforms.
+     * Identity transforms are omitted and consecutive affine transforms are multiplied together.
+     *
+     * @param  tr1  the first transform to apply.
+     * @param  tr2  the second transform to apply.
+     * @return the concatenated transform.
+     * @throws MismatchedDimensionException if the target dimension of {@code tr1}
+     *         is not the source dimension of {@code tr2}.
+     */
+    static MathTransform create(final MathTransform tr1, final MathTransform tr2) {
+        if (tr1.getTargetDimensions() != tr2.getSourceDimensions()) {
+            throw new MismatchedDimensionException("The target dimension of the first transform ("
+                    + tr1.getTargetDimensions() + ") does not match the source dimension of the second one ("
+                    + tr2.getSourceDimensions() + ").");
+        }
+        final List<MathTransform> list = new ArrayList<>();
+        addSteps(list, tr1);
+        addSteps(list, tr2);
+        switch (list.size()) {
+            case 0:  return new LinearTransform(new SimpleMatrix(tr1.getSourceDimensions() + 1));
+            case 1:  return list.get(0);
+            default: return new PipelineTransform(list.toArray(new MathTransform[list.size()]));
+        }
+    }
+
+    /**
+     * Appends the steps of the given transform to the given list, merging affine transforms.
+     */
+    private static void addSteps(final List<MathTransform> list, final MathTransform tr) {
+        if (tr instanceof PipelineTransform) {
+            for (final MathTransform step : ((PipelineTransform) tr).steps) {
+                addSteps(list, step);
+            }
+            return;
+        }
+        if (tr.isIdentity()) {
+            return;
+        }
+        final int last = list.size() - 1;
+        if (tr instanceof LinearTransform && last >= 0) {
+            final MathTransform previous = list.get(last);
+            if (previous instanceof LinearTransform) {
+                final LinearTransform merged = ((LinearTransform) previous).concatenate((LinearTransform) tr);
+                if (merged.isIdentity()) {
+                    list.remove(last);
+                } else {
+                    list.set(last, merged);
+                }
+                return;
+            }
+        }
+        list.add(tr);
+    }
+
+    /**
+     * Returns the number of source dimensions, which is the source dimension of the first step.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return steps[0].getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of target dimensions, which is the target dimension of the last step.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return steps[steps.length - 1].getTargetDimensions();
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc  the coordinate point to be transformed.
+     * @param  ptDst  the coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws TransformException if the point can not be transformed.
+     */
+    @Override
+    public DirectPosition transform(DirectPosition ptSrc, final DirectPosition ptDst) throws TransformException {
+        for (int i=0; i<steps.length - 1; i++) {
+            ptSrc = steps[i].transform(ptSrc, null);
+        }
+        return steps[steps.length - 1].transform(ptSrc, ptDst);
+    }
+
+    /**
+     * Transforms an arbitrary amount of points from the given source array to the given destination array.
+     * Exactly one of {@code srcDbl} and {@code srcFlt} shall be non-null, and likewise for the destination.
+     */
+    private void transform(double[] srcDbl, float[] srcFlt, int srcOff,
+                           final double[] dstDbl, final float[] dstFlt, int dstOff, int numPts)
+            throws TransformException
+    {
+        final int srcDim = getSourceDimensions();
+        final int tgtDim = getTargetDimensions();
+        if ((srcDbl != null ? srcDbl == dstDbl : srcFlt == dstFlt) &&
+                NetcdfProjection.needsCopy(srcOff, srcDim, dstOff, tgtDim, numPts))
+        {
+            if (srcDbl != null) {
+                srcDbl = Arrays.copyOfRange(srcDbl, srcOff, srcOff + numPts*srcDim);
+            } else {
+                srcFlt = Arrays.copyOfRange(srcFlt, srcOff, srcOff + numPts*srcDim);
+            }
+            srcOff = 0;
+        }
+        final int bufferSize = Math.min(numPts, CHUNK_SIZE) * maxDim;
+        double[] buffer = new double[bufferSize];
+        double[] spare  = (steps.length > 2) ? new double[bufferSize] : null;
+        final int last  = steps.length - 1;
+        while (numPts > 0) {
+            final int n = Math.min(numPts, CHUNK_SIZE);
+            if (srcDbl != null) {
+                steps[0].transform(srcDbl, srcOff, buffer, 0, n);
+            } else {
+                steps[0].transform(srcFlt, srcOff, buffer, 0, n);
+            }
+            for (int i=1; i<last; i++) {
+                steps[i].transform(buffer, 0, spare, 0, n);
+                final double[] swap = buffer;
+                buffer = spare;
+                spare  = swap;
+            }
+            if (dstDbl != null) {
+                steps[last].transform(buffer, 0, dstDbl, dstOff, n);
+            } else {
+                steps[last].transform(buffer, 0, dstFlt, dstOff, n);
+            }
+            srcOff += n * srcDim;
+            dstOff += n * tgtDim;
+            numPts -= n;
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff, final double[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(null, srcPts, srcOff, dstPts, null, dstOff, numPts);
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     *
+     * @throws TransformException if a point can not be transformed.
+     */
+    @Override
+    public void transform(final double[] srcPts, final int srcOff, final float[] dstPts, final int dstOff, final int numPts)
+            throws TransformException
+    {
+        transform(srcPts, null, srcOff, null, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. This is the product of the derivatives
+     * of all steps, each step being evaluated at the point transformed by the previous steps.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws TransformException if the derivative can not be evaluated at the specified point.
+     */
+    @Override
+    public Matrix derivative(DirectPosition point) throws TransformException {
+        SimpleMatrix product = null;
+        for (int i=0; i<steps.length; i++) {
+            final MathTransform step = steps[i];
+            final Matrix derivative = step.derivative(point);
+            final SimpleMatrix matrix = new SimpleMatrix(derivative.getNumRow(), derivative.getNumCol());
+            for (int j=0; j<matrix.getNumRow(); j++) {
+                for (int k=0; k<matrix.getNumCol(); k++) {
+                    matrix.setElement(j, k, derivative.getElement(j, k));
+                }
+            }
+            if (product == null) {
+                product = matrix;
+            } else {
+                final SimpleMatrix next = new SimpleMatrix(matrix.getNumRow(), product.getNumCol());
+                next.mul((GMatrix) matrix, (GMatrix) product);
+                product = next;
+            }
+            if (i != steps.length - 1) {
+                point = step.transform(point, null);
+            }
+        }
+        return product;
+    }
+
+    /**
+     * Returns the inverse of this transform, which is the inverse of all steps in reverse order.
+     *
+     * @throws NoninvertibleTransformException if a step is not invertible.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            final MathTransform[] inverses = new MathTransform[steps.length];
+            for (int i=0; i<steps.length; i++) {
+                inverses[steps.length - 1 - i] = steps[i].inverse();
+            }
+            final PipelineTransform tr = new PipelineTransform(inverses);
+            tr.inverse = this;
+            inverse = tr;
+        }
+        return inverse;
+    }
+
+    /**
+     * Returns {@code false} since identity steps are removed at construction time.
+     */
+    @Override
+    public boolean isIdentity() {
+        return false;
+    }
+
+    /**
+     * Unsupported operation.
+     *
+     * @throws UnsupportedOperationException always thrown.
+     */
+    @Override
+    public String toWKT() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns {@code true} if this transform is equal to the given object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        return (object instanceof PipelineTransform) && Arrays.equals(steps, ((PipelineTransform) object).steps);
+    }
+
+    /**
+     * Returns a hash code value for this transform.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(steps) ^ (int) serialVersionUID;
+    }
+}
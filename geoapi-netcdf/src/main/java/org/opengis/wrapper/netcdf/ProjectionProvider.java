@@ -286,6 +286,31 @@ abstract class ProjectionProvider<P extends Projection> extends NetcdfIdentified
      */
     protected abstract P createProjection(final ParameterValueGroup parameters);
 
+    /**
+     * Returns a key which is equal for all parameter groups that would produce the same projection.
+     * The key contains the netCDF projection name followed by the value of each parameter known to
+     * this provider, in declaration order. Numbers are formatted as {@code double} values with
+     * negative zero replaced by positive zero, so that {@code 0}, {@code 0.0} and {@code -0.0}
+     * are considered equal.
+     *
+     * @param  parameters  the parameters for which to compute a key.
+     * @return a key identifying the projection to be created from the given parameters.
+     * @throws ParameterNotFoundException if a parameter known to this provider is absent.
+     */
+    final String cacheKey(final ParameterValueGroup parameters) throws ParameterNotFoundException {
+        final StringBuilder key = new StringBuilder(name.name);
+        for (final AliasList aliases : this.parameters) {
+            final Object value = parameters.parameter(aliases.name).getValue();
+            key.append('\u001F');
+            if (value instanceof Number) {
+                key.append(((Number) value).doubleValue() + 0.0);       // Replace -0 by +0.
+            } else {
+                key.append(value);
+            }
+        }
+        return key.toString();
+    }
+
     /**
      * Returns the numeric value for the parameter of the given name.
      *
@@ -0,0 +1,344 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.io.Serializable;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+
+
+/**
+ * A grid to CRS transform for rectilinear grids, where each CRS coordinate depends only on the grid
+ * index in the same dimension. Regular axes are converted by a scale and an offset. Irregular axes
+ * are converted by linear interpolation in a table of the axis coordinate values, and by binary search
+ * in the same table for the inverse transform. Grid indices outside the table are extrapolated using
+ * the first or last interval.
+ *
+ * <p>The values in each table shall be strictly increasing or strictly decreasing.
+ * This condition is verified by {@link #isMonotonic(double[])}.</p>
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class RectilinearTransform implements MathTransform, Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = 4087519211640286398L;
+
+    /**
+     * The scale factor for each regular axis. Ignored for axes having a table.
+     */
+    private final double[] scale;
+
+    /**
+     * The offset for each regular axis. Ignored for axes having a table.
+     */
+    private final double[] offset;
+
+    /**
+     * The coordinate values for each irregular axis, or {@code null} for regular axes.
+     * Each table has a length of at least 2.
+     */
+    private final double[][] tables;
+
+    /**
+     * {@code true} if this transform converts CRS coordinates to grid indices.
+     */
+    private final boolean isInverse;
+
+    /**
+     * The inverse transform. This transform shares the same arrays than this transform.
+     */
+    private final RectilinearTransform inverse;
+
+    /**
+     * Creates a new transform from grid indices to CRS coordinates.
+     * The given arrays are <strong>not</strong> cloned.
+     *
+     * @param  scale   the scale factor for each regular axis.
+     * @param  offset  the offset for each regular axis.
+     * @param  tables  the coordinate values for each irregular axis, or {@code null} for regular axes.
+     */
+    RectilinearTransform(final double[] scale, final double[] offset, final double[][] tables) {
+        this.scale  = scale;
+        this.offset = offset;
+        this.tables = tables;
+        isInverse   = false;
+        inverse     = new RectilinearTransform(this);
+    }
+
+    /**
+     * Creates the inverse of the given transform.
+     */
+    private RectilinearTransform(final RectilinearTransform forward) {
+        scale     = forward.scale;
+        offset    = forward.offset;
+        tables    = forward.tables;
+        isInverse = true;
+        inverse   = forward;
+    }
+
+    /**
+     * Returns {@code true} if the given values are strictly increasing or strictly decreasing.
+     * Tables which are not monotonic can not be inverted.
+     *
+     * @param  values  the axis coordinate values.
+     * @return whether the values are strictly monotonic.
+     */
+    static boolean isMonotonic(final double[] values) {
+        if (values.length < 2) {
+            return false;
+        }
+        final boolean increasing = values[1] > values[0];
+        for (int i=1; i<values.length; i++) {
+            final double previous = values[i-1];
+            final double current  = values[i];
+            if (increasing ? !(current > previous) : !(current < previous)) {      // Use '!' for catching NaN.
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the index of the interval to use for interpolating at the given grid index.
+     * Indices outside the table are clamped to the first or last interval.
+     */
+    private static int interval(final double[] table, final double index) {
+        final int i = (int) Math.floor(index);
+        return Math.max(0, Math.min(i, table.length - 2));
+    }
+
+    /**
+     * Returns the index of the interval containing the given coordinate value.
+     * Values outside the table are clamped to the first or last interval.
+     */
+    private static int search(final double[] table, final double value) {
+        final boolean increasing = table[table.length - 1] > table[0];
+        int lower = 0;
+        int upper = table.length - 1;
+        while (upper - lower > 1) {
+            final int mid = (lower + upper) >>> 1;
+            if (increasing ? table[mid] <= value : table[mid] >= value) {
+                lower = mid;
+            } else {
+                upper = mid;
+            }
+        }
+        return lower;
+    }
+
+    /**
+     * Converts a single coordinate value in the given dimension.
+     *
+     * @param  dim    the dimension of the coordinate.
+     * @param  value  the grid index (forward transform) or CRS coordinate (inverse transform).
+     * @return the converted coordinate.
+     */
+    private double apply(final int dim, final double value) {
+        final double[] table = tables[dim];
+        if (table == null) {
+            return isInverse ? (value - offset[dim]) / scale[dim] : value * scale[dim] + offset[dim];
+        }
+        if (isInverse) {
+            final int i = search(table, value);
+            return i + (value - table[i]) / (table[i+1] - table[i]);
+        } else {
+            final int i = interval(table, value);
+            return table[i] + (value - i) * (table[i+1] - table[i]);
+        }
+    }
+
+    /**
+     * Returns the derivative of {@link #apply(int, double)} at the given coordinate value.
+     */
+    private double derivative(final int dim, final double value) {
+        final double[] table = tables[dim];
+        if (table == null) {
+            return isInverse ? 1 / scale[dim] : scale[dim];
+        }
+        final int i = isInverse ? search(table, value) : interval(table, value);
+        final double slope = table[i+1] - table[i];
+        return isInverse ? 1 / slope : slope;
+    }
+
+    /**
+     * Returns the number of source dimensions, which is the same than the number of target dimensions.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return tables.length;
+    }
+
+    /**
+     * Returns the number of target dimensions, which is the same than the number of source dimensions.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return tables.length;
+    }
+
+    /**
+     * Ensures that the given position has the expected dimension.
+     *
+     * @param  point  the position to verify, or {@code null}.
+     * @throws MismatchedDimensionException if the given position does not have the expected dimension.
+     */
+    private void ensureValidDimension(final DirectPosition point) throws MismatchedDimensionException {
+        if (point != null && point.getDimension() != tables.length) {
+            throw new MismatchedDimensionException("All given positions shall be " + tables.length + "-dimensional.");
+        }
+    }
+
+    /**
+     * Transforms the specified {@code ptSrc} and stores the result in {@code ptDst}.
+     *
+     * @param  ptSrc  the coordinate point to be transformed.
+     * @param  ptDst  the coordinate point that stores the result of transforming {@code ptSrc}, or {@code null}.
+     * @return the coordinate point after transforming {@code ptSrc} and storing the result in {@code ptDst},
+     *         or a newly created point if {@code ptDst} was null.
+     * @throws MismatchedDimensionException if {@code ptSrc} or {@code ptDst} does not have the expected dimension.
+     */
+    @Override
+    public DirectPosition transform(final DirectPosition ptSrc, DirectPosition ptDst) throws MismatchedDimensionException {
+        ensureValidDimension(ptSrc);
+        ensureValidDimension(ptDst);
+        if (ptDst == null) {
+            ptDst = new SimpleDirectPosition(tables.length);
+        }
+        for (int i=0; i<tables.length; i++) {
+            ptDst.setOrdinate(i, apply(i, ptSrc.getOrdinate(i)));
+        }
+        return ptDst;
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values. Since each coordinate is converted
+     * independently of the other coordinates, overlapping source and target regions are handled
+     * by iterating in the direction which does not overwrite coordinates before they are read.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final double[] dstPts, int dstOff, final int numPts) {
+        final int dim = tables.length;
+        int n = numPts * dim;
+        if (srcPts == dstPts && srcOff < dstOff) {
+            while (--n >= 0) {
+                dstPts[dstOff + n] = apply(n % dim, srcPts[srcOff + n]);
+            }
+        } else {
+            for (int i=0; i<n; i++) {
+                dstPts[dstOff + i] = apply(i % dim, srcPts[srcOff + i]);
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     * Overlapping source and target regions are handled as in the {@code double[]} case.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final float[] dstPts, int dstOff, final int numPts) {
+        final int dim = tables.length;
+        int n = numPts * dim;
+        if (srcPts == dstPts && srcOff < dstOff) {
+            while (--n >= 0) {
+                dstPts[dstOff + n] = (float) apply(n % dim, srcPts[srcOff + n]);
+            }
+        } else {
+            for (int i=0; i<n; i++) {
+                dstPts[dstOff + i] = (float) apply(i % dim, srcPts[srcOff + i]);
+            }
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final float[] srcPts, int srcOff, final double[] dstPts, int dstOff, final int numPts) {
+        final int dim = tables.length;
+        final int n = numPts * dim;
+        for (int i=0; i<n; i++) {
+            dstPts[dstOff + i] = apply(i % dim, srcPts[srcOff + i]);
+        }
+    }
+
+    /**
+     * Transforms a list of coordinate point ordinal values.
+     */
+    @Override
+    public void transform(final double[] srcPts, int srcOff, final float[] dstPts, int dstOff, final int numPts) {
+        final int dim = tables.length;
+        final int n = numPts * dim;
+        for (int i=0; i<n; i++) {
+            dstPts[dstOff + i] = (float) apply(i % dim, srcPts[srcOff + i]);
+        }
+    }
+
+    /**
+     * Gets the derivative of this transform at a point. The derivative is a diagonal matrix,
+     * since each coordinate depends only on the grid index in the same dimension. For irregular
+     * axes, this is the slope of the interpolation interval containing the point.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws MismatchedDimensionException if the point does not have the expected dimension.
+     */
+    @Override
+    public Matrix derivative(final DirectPosition point) throws MismatchedDimensionException {
+        if (point == null) {
+            throw new NullPointerException("The point shall not be null.");
+        }
+        ensureValidDimension(point);
+        final SimpleMatrix matrix = new SimpleMatrix(tables.length);
+        for (int i=0; i<tables.length; i++) {
+            matrix.setElement(i, i, derivative(i, point.getOrdinate(i)));
+        }
+        return matrix;
+    }
+
+    /**
+     * Returns the inverse of this transform.
+     */
+    @Override
+    public MathTransform inverse() {
+        return inverse;
+    }
+
+    /**
+     * Returns {@code true} if this transform is the identity transform.
+     */
+    @Override
+    public boolean isIdentity() {
+        for (int i=0; i<tables.length; i++) {
+            if (tables[i] != null || scale[i] != 1 || offset[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Unsupported operation, since this transform has no WKT representation.
+     *
+     * @throws UnsupportedOperationException always thrown.
+     */
+    @Override
+    public String toWKT() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Lookup tables can not be formatted as WKT.");
+    }
+}
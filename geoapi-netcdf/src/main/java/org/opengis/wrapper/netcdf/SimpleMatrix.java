@@ -38,6 +38,14 @@ final class SimpleMatrix extends GMatrix implements Matrix {
         super(size, size);
     }
 
+    /**
+     * Creates a matrix of size {@code numRow}&nbsp;×&nbsp;{@code numCol}.
+     * Elements on the diagonal (<var>j</var> == <var>i</var>) are set to 1.
+     */
+    SimpleMatrix(final int numRow, final int numCol) {
+        super(numRow, numCol);
+    }
+
     /**
      * Returns {@code true} if this matrix is an identity matrix.
      */
@@ -31,6 +31,8 @@
  */
 package org.opengis.wrapper.netcdf;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.measure.Unit;
 import javax.measure.format.UnitFormat;
 import javax.measure.format.ParserException;
@@ -117,9 +119,26 @@ final class Units {
     /**
      * The object to use for getting a unit from its symbol.
      * This is created when first needed by {@link #parse(String)}.
+     * Since {@link UnitFormat} instances are not guaranteed to be thread-safe
+     * and may be shared by the JSR-363 implementation, all uses of this format
+     * shall be synchronized on the format instance.
      */
     private static UnitFormat unitFormat;
 
+    /**
+     * Maximal number of entries in the {@link #PARSED} cache. When this capacity is reached,
+     * the cache is cleared before new entries are added.
+     */
+    private static final int CACHE_CAPACITY = 256;
+
+    /**
+     * The units parsed by {@link #parse(String)}, keyed by their trimmed symbol. Values are either
+     * {@link Unit} instances or, for symbols that can not be parsed, the {@link ParserException}
+     * thrown by the first parsing attempt. The same unit symbols are found in most netCDF files,
+     * so this cache avoids the cost and the synchronization of the unit parser in the common case.
+     */
+    private static final Map<String,Object> PARSED = new ConcurrentHashMap<>();
+
     /**
      * Do not allow instantiation of this class.
      */
@@ -127,10 +146,12 @@ final class Units {
     }
 
     /**
-     * Parses the given symbol using the {@link UnitFormat} instance provided by whatever JSR-363
-     * implementation is found on the classpath. The same instance is reused for all units to parse.
+     * Returns the {@link UnitFormat} instance provided by whatever JSR-363 implementation
+     * is found on the classpath.
+     *
+     * @throws ParserException if no unit format has been found.
      */
-    static synchronized Unit<?> parse(final String symbol) throws ParserException {
+    private static synchronized UnitFormat format(final String symbol) throws ParserException {
         if (unitFormat == null) {
             ServiceProvider provider = ServiceProvider.current();
             if (provider != null) {
@@ -143,8 +164,49 @@ final class Units {
                 throw new ParserException("Can not parse unit symbol because no UnitFormat has been found on the classpath.", symbol, 0);
             }
         }
+        return unitFormat;
+    }
+
+    /**
+     * Parses the given symbol using the {@link UnitFormat} instance provided by whatever JSR-363
+     * implementation is found on the classpath. Leading and trailing spaces are ignored. Results
+     * are cached, including failures: parsing an invalid symbol many times throws a new exception
+     * each time, with the message of the first failure, without invoking the parser again.
+     */
+    static Unit<?> parse(String symbol) throws ParserException {
+        symbol = symbol.trim();
+        Object value = PARSED.get(symbol);
+        if (value == null) {
+            final UnitFormat format = format(symbol);
+            try {
+                value = parse(format, symbol);
+            } catch (ParserException e) {
+                value = e;
+            }
+            if (PARSED.size() >= CACHE_CAPACITY) {
+                PARSED.clear();
+            }
+            final Object existing = PARSED.putIfAbsent(symbol, value);
+            if (existing != null) {
+                value = existing;
+            }
+        }
+        if (value instanceof ParserException) {
+            final ParserException e = (ParserException) value;
+            throw new ParserException(e.getMessage(), symbol, e.getPosition());
+        }
+        return (Unit<?>) value;
+    }
+
+    /**
+     * Parses the given symbol using the given format, with a fallback on hard-coded symbols
+     * found in some netCDF files. This method does not use the cache.
+     */
+    private static Unit<?> parse(final UnitFormat format, final String symbol) throws ParserException {
         try {
-            return unitFormat.parse(symbol);
+            synchronized (format) {
+                return format.parse(symbol);
+            }
         } catch (ParserException e) {
             /*
              * Workaround for symbols found in some netCDF files
@@ -343,4 +343,24 @@ public strictfp class NetcdfCRSTest extends IOTestCase {
             assertArrayEquals("standard_parallel", new double[] {25.0, 25.05}, p.parameter("standard_parallel").doubleValueList(), EPS);
         }
     }
+
+    /**
+     * Tests the {@link NetcdfCRS.Cache} of wrappers. Wrapping the same netCDF coordinate system twice
+     * shall return the same instance, including its grid to CRS transform, while wrapping without
+     * cache shall create a new instance.
+     *
+     * @throws IOException if an error occurred while reading the test file.
+     */
+    @Test
+    public void testWrapperCache() throws IOException {
+        try (NetcdfDataset file = new NetcdfDataset(open(TestData.NETCDF_4D_PROJECTED))) {
+            final CoordinateSystem cs = assertSingleton(file.getCoordinateSystems());
+            final NetcdfCRS.Cache cache = new NetcdfCRS.Cache(file, null);
+            final NetcdfCRS wrapper = cache.wrap(cs);
+            assertSame(wrapper, cache.wrap(cs));
+            assertSame(wrapper.getGridToCRS(), cache.wrap(cs).getGridToCRS());
+            assertNotSame(wrapper, NetcdfCRS.wrap(cs, file, null));
+            assertNotSame(wrapper, new NetcdfCRS.Cache(file, null).wrap(cs));
+        }
+    }
 }
@@ -0,0 +1,156 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.io.IOException;
+
+import ucar.ma2.Section;
+import ucar.ma2.InvalidRangeException;
+import ucar.nc2.Variable;
+import ucar.nc2.dataset.NetcdfDataset;
+
+import org.opengis.geometry.Envelope;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.test.dataset.TestData;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link NetcdfCoverageReader} class. The values delivered tile by tile are compared
+ * with the values read in a single {@link Variable#read()} call.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class NetcdfCoverageReaderTest extends IOTestCase {
+    /**
+     * A trivial envelope implementation for the tests.
+     */
+    private static final class Box implements Envelope {
+        private final SimpleDirectPosition lower, upper;
+
+        Box(final double... bounds) {
+            lower = new SimpleDirectPosition(bounds.length / 2);
+            upper = new SimpleDirectPosition(bounds.length / 2);
+            for (int i=0; i<bounds.length; i += 2) {
+                lower.setOrdinate(i/2, bounds[i  ]);
+                upper.setOrdinate(i/2, bounds[i+1]);
+            }
+        }
+
+        @Override public CoordinateReferenceSystem getCoordinateReferenceSystem() {return null;}
+        @Override public int            getDimension()      {return lower.getDimension();}
+        @Override public DirectPosition getLowerCorner()    {return lower;}
+        @Override public DirectPosition getUpperCorner()    {return upper;}
+        @Override public double getMinimum(final int i)     {return lower.getOrdinate(i);}
+        @Override public double getMaximum(final int i)     {return upper.getOrdinate(i);}
+        @Override public double getMedian (final int i)     {return (getMinimum(i) + getMaximum(i)) / 2;}
+        @Override public double getSpan   (final int i)     {return  getMaximum(i) - getMinimum(i);}
+    }
+
+    /**
+     * Reads the given section tile by tile and compares the values with the ones read directly
+     * from the variable. Each cell of the section shall be delivered exactly once.
+     *
+     * @param  reader   the reader to test.
+     * @param  section  the grid indices to read, in netCDF dimension order.
+     * @return the number of tiles delivered by the reader.
+     */
+    private static int verifyRead(final NetcdfCoverageReader reader, final Section section) throws IOException {
+        final Variable variable  = reader.getVariable();
+        final int[]    fullShape = variable.getShape();
+        final int[]    lower     = section.getOrigin();
+        final int[]    size      = section.getShape();
+        final Object   expected  = variable.read().copyTo1DJavaArray();
+        final boolean[] visited  = new boolean[(int) section.computeSize()];
+        final int[] count = new int[2];                         // Number of tiles and number of cells.
+        reader.read(section, (tile, values) -> {
+            final int[] origin = tile.getOrigin();
+            final int[] shape  = tile.getShape();
+            assertArrayEquals("Tile shape", shape, values.getShape());
+            final Object actual = values.copyTo1DJavaArray();
+            final int length = java.lang.reflect.Array.getLength(actual);
+            final int[] index = new int[shape.length];
+            for (int k=0; k<length; k++) {
+                int global = 0, local = 0;
+                for (int j=0; j<shape.length; j++) {
+                    final int g = origin[j] + index[j];
+                    assertTrue("Cell outside the section.", g >= lower[j] && g < lower[j] + size[j]);
+                    global = global * fullShape[j] + g;
+                    local  = local  * size[j] + (g - lower[j]);
+                }
+                assertFalse("Cell delivered twice.", visited[local]);
+                visited[local] = true;
+                assertEquals(java.lang.reflect.Array.getDouble(expected, global),
+                             java.lang.reflect.Array.getDouble(actual, k), 0);
+                for (int j=shape.length; --j >= 0;) {           // Last dimension varies fastest.
+                    if (++index[j] < shape[j]) break;
+                    index[j] = 0;
+                }
+            }
+            count[0]++;
+            count[1] += length;
+        });
+        assertEquals("Number of cells", visited.length, count[1]);
+        return count[0];
+    }
+
+    /**
+     * Tests reading a subregion of the {@link TestData#NETCDF_2D_GEOGRAPHIC} file, specified by an envelope.
+     * Longitudes are -180 + 5<var>i</var> and latitudes are -90 + 2.5<var>j</var>, so the envelope below
+     * contains the centers of cells 30 to 45 along longitudes and 32 to 45 along latitudes.
+     *
+     * @throws IOException if an error occurred while reading the test file.
+     * @throws TransformException if the envelope can not be converted to grid indices.
+     * @throws InvalidRangeException should never happen.
+     */
+    @Test
+    public void testGeographic2D() throws IOException, TransformException, InvalidRangeException {
+        try (NetcdfDataset file = new NetcdfDataset(open(TestData.NETCDF_2D_GEOGRAPHIC))) {
+            final NetcdfCRS crs = NetcdfCRS.wrap(file.getCoordinateSystems().get(0));
+            final NetcdfCoverageReader reader = new NetcdfCoverageReader(file.findVariable("SST"), crs);
+            assertArrayEquals("Not chunked", new int[] {73, 73}, reader.getChunkShape());
+            final Section section = reader.getSection(new Box(-32, 47, -11, 23));
+            assertEquals(new Section(new int[] {32, 30}, new int[] {14, 16}), section);
+            assertEquals("Number of tiles", 1, verifyRead(reader, section));
+            assertEquals(new Section(new int[] {0, 0}, new int[] {73, 73}), reader.getSection(null));
+            assertNull("Envelope outside the grid.", reader.getSection(new Box(200, 210, 0, 10)));
+        }
+    }
+
+    /**
+     * Tests reading a subregion of the {@link TestData#NETCDF_4D_PROJECTED} file, specified by grid indices.
+     * Since the file is not chunked, each tile shall contain a single level of the section.
+     *
+     * @throws IOException if an error occurred while reading the test file.
+     * @throws TransformException should never happen.
+     * @throws InvalidRangeException should never happen.
+     */
+    @Test
+    public void testProjected4D() throws IOException, TransformException, InvalidRangeException {
+        try (NetcdfDataset file = new NetcdfDataset(open(TestData.NETCDF_4D_PROJECTED))) {
+            final NetcdfCRS crs = NetcdfCRS.wrap(file.getCoordinateSystems().get(0));
+            final NetcdfCoverageReader reader = new NetcdfCoverageReader(file.findVariable("CIP"), crs);
+            assertArrayEquals("Not chunked", new int[] {1, 1, 19, 38}, reader.getChunkShape());
+            assertEquals(new Section(new int[] {0, 0, 0, 0}, new int[] {1, 4, 19, 38}), reader.getSection(null));
+            final Section section = new Section(new int[] {0, 1, 2, 11}, new int[] {1, 3, 12, 9});
+            assertEquals("Number of tiles", 3, verifyRead(reader, section));
+        }
+    }
+}
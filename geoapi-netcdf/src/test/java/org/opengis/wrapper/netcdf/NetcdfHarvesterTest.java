@@ -0,0 +1,81 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import java.util.Map;
+import java.util.HashMap;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import ucar.nc2.constants.ACDD;
+import org.opengis.test.dataset.TestData;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link NetcdfHarvester} class.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class NetcdfHarvesterTest {
+    /**
+     * The directory where to write the test files.
+     */
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    /**
+     * Harvests a directory containing two valid netCDF files, one corrupted netCDF file
+     * and one file which is not a netCDF file.
+     *
+     * @throws IOException if an error occurred while writing or harvesting the test files.
+     */
+    @Test
+    public void testHarvest() throws IOException {
+        final Path root = folder.getRoot().toPath();
+        final Path sub  = Files.createDirectory(root.resolve("sub"));
+        Files.write(root.resolve("geographic.nc"), TestData.NETCDF_2D_GEOGRAPHIC.content());
+        Files.write(sub .resolve("projected.nc"),  TestData.NETCDF_4D_PROJECTED.content());
+        Files.write(sub .resolve("broken.nc"),     new byte[] {1, 2, 3});
+        Files.write(root.resolve("readme.txt"),    new byte[] {'a'});
+
+        final Map<String,NetcdfHarvester.Result> results = new HashMap<>();
+        final int count = new NetcdfHarvester(2, 2).harvest(root, (result) -> {
+            assertNull(results.put(result.getPath().getFileName().toString(), result));
+            assertTrue(result.getElapsedTime(TimeUnit.NANOSECONDS) >= 0);
+        });
+        assertEquals(3, count);
+        assertEquals(3, results.size());
+
+        NetcdfHarvester.Result result = results.get("geographic.nc");
+        assertNull(result.getFailure());
+        assertEquals("Test data from Sea Surface Temperature Analysis Model", result.getMetadata().get(ACDD.title));
+        assertFalse(result.getCoordinateReferenceSystems().isEmpty());
+
+        result = results.get("projected.nc");
+        assertNull(result.getFailure());
+        assertEquals("Test data from Current Icing Product (CIP)", result.getMetadata().get(ACDD.title));
+
+        result = results.get("broken.nc");
+        assertNotNull(result.getFailure());
+        assertTrue(result.getMetadata().isEmpty());
+    }
+}
@@ -14,9 +14,11 @@
 package org.opengis.wrapper.netcdf;
 
 import java.net.URI;
+import java.util.Map;
 import java.util.Date;
 import java.io.IOException;
 import ucar.nc2.NetcdfFile;
+import ucar.nc2.constants.ACDD;
 
 import org.opengis.metadata.Metadata;
 import org.opengis.metadata.citation.Role;
@@ -34,6 +36,8 @@ import org.opengis.test.dataset.ContentVerifier;
 
 import org.junit.Test;
 
+import static org.junit.Assert.*;
+
 
 /**
  * Tests the {@link NetcdfMetadata} class.
@@ -185,4 +189,24 @@ public strictfp class NetcdfMetadataTest extends IOTestCase {
                 "metadataStandard[0].edition",                                             "ISO 19115-2:2009(E)");
         }
     }
+
+    /**
+     * Tests {@link NetcdfMetadata#harvest()} on the {@link TestData#NETCDF_2D_GEOGRAPHIC} file.
+     * The harvested values shall be the same than the values returned by the getter methods.
+     *
+     * @throws IOException if the test file can not be read.
+     */
+    @Test
+    public void testHarvest() throws IOException {
+        try (NetcdfFile file = open(TestData.NETCDF_2D_GEOGRAPHIC)) {
+            final NetcdfMetadata metadata = new NetcdfMetadata(file);
+            final Map<String,Object> properties = metadata.harvest();
+            assertEquals("Test data from Sea Surface Temperature Analysis Model", properties.get(ACDD.title));
+            assertEquals(new Date(1127347200000L), properties.get(ACDD.date_created));
+            assertEquals(-180.0, properties.get(ACDD.LON_MIN));
+            assertEquals(  90.0, properties.get(ACDD.LAT_MAX));
+            assertEquals(new Date(1127347200000L), metadata.getDate());
+            assertEquals(-180.0, metadata.getWestBoundLongitude(), 0);
+        }
+    }
 }
@@ -14,10 +14,16 @@
 package org.opengis.wrapper.netcdf;
 
 import java.util.Random;
+import java.awt.Shape;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.PathIterator;
 import ucar.unidata.geoloc.Projection;
 import ucar.unidata.geoloc.projection.Mercator;
+import ucar.unidata.geoloc.projection.LambertConformal;
 
 import org.opengis.metadata.extent.GeographicBoundingBox;
+import org.opengis.referencing.operation.MathTransform2D;
 import org.opengis.referencing.operation.SingleOperation;
 import org.opengis.referencing.operation.TransformException;
 import org.opengis.test.referencing.TransformTestCase;
@@ -103,6 +109,66 @@ public strictfp class NetcdfProjectionTest extends TransformTestCase {
                        new Random(216919106));
     }
 
+    /**
+     * Tests the transformation of arrays having more points than the chunks used internally by
+     * {@link NetcdfProjection} (512 points), with distinct arrays, in-place and with overlapping
+     * regions shifted backward or forward. The results are compared point by point with the values
+     * computed by {@link MathTransform2D#transform(Point2D, Point2D)}. Both the forward and the
+     * inverse projections are tested.
+     *
+     * @throws TransformException if a point can not be projected.
+     */
+    @Test
+    public void testLargeArrays() throws TransformException {
+        final NetcdfProjection projection = new NetcdfProjection(new Mercator(), null, null);
+        final Random random = new Random(730194628);
+        final double[] geographic = new double[1300 * 2];
+        for (int i=0; i<geographic.length; i += 2) {
+            geographic[i  ] = random.nextDouble() * 360 - 180;
+            geographic[i+1] = random.nextDouble() * 160 -  80;
+        }
+        final double[] projected = verifyLargeArrays(projection, geographic);
+        verifyLargeArrays(projection.inverse(), projected);
+    }
+
+    /**
+     * Transforms the given coordinates by chunks and compares with the coordinates transformed point by point.
+     *
+     * @param  projection  the projection to test.
+     * @param  source      the (<var>x</var>,<var>y</var>) coordinates to transform.
+     * @return the expected transformed coordinates.
+     */
+    private static double[] verifyLargeArrays(final MathTransform2D projection, final double[] source)
+            throws TransformException
+    {
+        final int numPts = source.length / 2;
+        final double[] expected = new double[source.length];
+        final Point2D.Double point = new Point2D.Double();
+        for (int i=0; i<source.length; i += 2) {
+            point.setLocation(source[i], source[i+1]);
+            projection.transform(point, point);
+            expected[i  ] = point.x;
+            expected[i+1] = point.y;
+        }
+        final double[] actual = new double[source.length];
+        projection.transform(source, 0, actual, 0, numPts);
+        assertArrayEquals(expected, actual, 1E-9);
+        for (int shift = -6; shift <= 6; shift += 6) {           // Three points backward, in-place, three points forward.
+            final double[] data = new double[source.length + 12];
+            System.arraycopy(source, 0, data, 6, source.length);
+            projection.transform(data, 6, data, 6 + shift, numPts);
+            for (int i=0; i<expected.length; i++) {
+                assertEquals(expected[i], data[6 + shift + i], 1E-9);
+            }
+        }
+        final float[] floats = new float[source.length];
+        projection.transform(source, 0, floats, 0, numPts);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], floats[i], Math.abs(expected[i]) * 1E-6);
+        }
+        return expected;
+    }
+
     /**
      * Tests projection name and classname.
      */
@@ -135,4 +201,42 @@ public strictfp class NetcdfProjectionTest extends TransformTestCase {
         assertBetween("southBoundLatitude",  -90,  -43, box.getSouthBoundLatitude());
         assertBetween("northBoundLatitude",   43,  +90, box.getNorthBoundLatitude());
     }
+
+    /**
+     * Tests {@link NetcdfProjection#createTransformedShape(Shape, double)} on a parallel,
+     * which is a straight line in geographic coordinates but an arc of circle in the
+     * Lambert Conic Conformal projection.
+     *
+     * @throws TransformException if a point can not be projected.
+     */
+    @Test
+    public void testDensification() throws TransformException {
+        final NetcdfProjection projection = new NetcdfProjection(new LambertConformal(40, -100, 30, 60), null, null);
+        final Shape parallel = new Line2D.Double(-130, 45, -70, 45);
+        assertEquals(2, countPoints(projection.createTransformedShape(parallel), null));
+
+        final Shape coarse = projection.createTransformedShape(parallel, 1);
+        final Shape fine   = projection.createTransformedShape(parallel, 0.01);
+        final int n = countPoints(coarse, projection);
+        assertTrue("Expected intermediate points.", n > 2);
+        assertTrue("Expected more points for a finer tolerance.", countPoints(fine, projection) > n);
+    }
+
+    /**
+     * Returns the number of points in the given shape. If {@code projection} is non-null,
+     * then this method also verifies that all points are on the 45°N parallel.
+     */
+    private static int countPoints(final Shape shape, final NetcdfProjection projection) throws TransformException {
+        final double[] buffer = new double[6];
+        int count = 0;
+        for (final PathIterator it = shape.getPathIterator(null); !it.isDone(); it.next()) {
+            assertTrue(it.currentSegment(buffer) != PathIterator.SEG_CLOSE);
+            if (projection != null) {
+                projection.inverse().transform(buffer, 0, buffer, 0, 1);
+                assertEquals("latitude", 45, buffer[1], 1E-8);
+            }
+            count++;
+        }
+        return count;
+    }
 }
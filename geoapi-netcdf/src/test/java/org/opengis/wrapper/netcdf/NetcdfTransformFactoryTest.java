@@ -217,6 +217,31 @@ public strictfp class NetcdfTransformFactoryTest extends TestCase {
         }
     }
 
+    /**
+     * Tests the cache of projections. Parameter groups with equal values, including values
+     * specified through aliases or as negative zero, shall produce the same instance.
+     *
+     * @throws FactoryException if a projection can not be created.
+     */
+    @Test
+    public void testProjectionCache() throws FactoryException {
+        final NetcdfTransformFactory factory = new NetcdfTransformFactory();
+        final ParameterValueGroup p1 = factory.getDefaultParameters("Mercator");
+        final ParameterValueGroup p2 = factory.getDefaultParameters("Mercator_2SP");
+        p1.parameter(CF.LONGITUDE_OF_PROJECTION_ORIGIN).setValue(-0.0);
+        p2.parameter("central_meridian").setValue(0);
+        final MathTransform tr1 = factory.createParameterizedTransform(p1);
+        assertSame(tr1, factory.createParameterizedTransform(p2));
+
+        p2.parameter("central_meridian").setValue(10);
+        assertNotSame(tr1, factory.createParameterizedTransform(p2));
+
+        final Map<String,Long> stats = factory.getCacheStatistics();
+        assertEquals(Long.valueOf(1), stats.get("hits"));
+        assertEquals(Long.valueOf(2), stats.get("misses"));
+        assertEquals(Long.valueOf(2), stats.get("size"));
+    }
+
     /**
      * Generates a list of all supported projections and their parameters in Javadoc format.
      * The output of this method can be copy-and-pasted in the {@link NetcdfTransformFactory}
@@ -0,0 +1,118 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link PipelineTransform}, {@link PassThroughTransform} and {@link LinearTransform} classes.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class PipelineTransformTest {
+    /**
+     * Creates a two-dimensional affine transform with the given scale and offset in each dimension.
+     */
+    private static LinearTransform affine(final double sx, final double tx, final double sy, final double ty) {
+        final SimpleMatrix matrix = new SimpleMatrix(3);
+        matrix.setElement(0, 0, sx);
+        matrix.setElement(0, 2, tx);
+        matrix.setElement(1, 1, sy);
+        matrix.setElement(1, 2, ty);
+        return new LinearTransform(matrix);
+    }
+
+    /**
+     * Tests the concatenation of affine transforms, which shall be merged in a single matrix.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testAffineConcatenation() throws TransformException {
+        final LinearTransform tr1 = affine(2, 10, 4, -6);
+        final MathTransform tr = PipelineTransform.create(tr1, affine(0.5, 1, -1, 0));
+        assertTrue(tr instanceof LinearTransform);
+        final double[] points = {1, 2,   -4, 6};
+        tr.transform(points, 0, points, 0, 2);
+        assertArrayEquals(new double[] {7, -2,   2, -18}, points, 0);
+        assertSame(tr1, PipelineTransform.create(tr1, affine(1, 0, 1, 0)));
+        assertTrue(PipelineTransform.create(tr1, tr1.inverse()).isIdentity());
+    }
+
+    /**
+     * Tests a pipeline with a non-linear step between two affine steps, using all array types.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testPipeline() throws TransformException {
+        final MathTransform table = new RectilinearTransform(
+                new double[] {1, 0}, new double[] {0, 0}, new double[][] {null, {0, 10, 30}});
+        MathTransform tr = PipelineTransform.create(affine(1, 0, 0.5, 0), table);
+        tr = PipelineTransform.create(tr, affine(1, 0, 1, 100));
+        tr = PipelineTransform.create(affine(1, 1, 1, 0), tr);
+        assertTrue(tr instanceof PipelineTransform);
+
+        final double[] expected = {1, 100,   2, 110,   3, 130};
+        final double[] points   = {0, 0,     1, 2,     2, 4};
+        final double[] result   = new double[points.length];
+        tr.transform(points, 0, result, 0, 3);
+        assertArrayEquals(expected, result, 1E-12);
+
+        final float[] floats = {0, 0,   1, 2,   2, 4};
+        tr.transform(floats, 0, floats, 0, 3);
+        for (int i=0; i<expected.length; i++) {
+            assertEquals(expected[i], floats[i], 1E-5);
+        }
+        tr.inverse().transform(result, 0, result, 0, 3);
+        assertArrayEquals(points, result, 1E-12);
+
+        final SimpleDirectPosition point = new SimpleDirectPosition(2);
+        point.setOrdinate(1, 3);
+        final Matrix derivative = tr.derivative(point);
+        assertEquals(1,  derivative.getElement(0, 0), 1E-12);
+        assertEquals(10, derivative.getElement(1, 1), 1E-12);
+    }
+
+    /**
+     * Tests a pass-through transform applying a non-linear sub-transform on the middle coordinates,
+     * with overlapping source and target regions.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testPassThrough() throws TransformException {
+        final MathTransform sub = new RectilinearTransform(
+                new double[] {2, 0}, new double[] {1, 0}, new double[][] {null, {5, 6, 8}});
+        final MathTransform tr = PassThroughTransform.create(1, sub, 1);
+        assertEquals(4, tr.getSourceDimensions());
+        final double[] data = {0,   7, 0, 1, 9,   8, 1, 2, 10};
+        tr.transform(data, 1, data, 0, 2);
+        assertArrayEquals(new double[] {7, 1, 6, 9,   8, 3, 8, 10,   10}, data, 1E-12);
+
+        final MathTransform affine = PassThroughTransform.create(1, affine(2, 1, 3, 0), 0);
+        assertTrue(affine instanceof LinearTransform);
+        final double[] points = {5, 1, 1};
+        affine.transform(points, 0, points, 0, 1);
+        assertArrayEquals(new double[] {5, 3, 3}, points, 0);
+    }
+}
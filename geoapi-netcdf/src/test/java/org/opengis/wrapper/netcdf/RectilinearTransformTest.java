@@ -0,0 +1,75 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link RectilinearTransform} class.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class RectilinearTransformTest {
+    /**
+     * Tests a transform with one regular axis and one irregular decreasing axis,
+     * as found for example in ocean model depths.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testTransform() throws TransformException {
+        final double[] depths = {0, -10, -30, -70};
+        assertTrue(RectilinearTransform.isMonotonic(depths));
+        assertFalse(RectilinearTransform.isMonotonic(new double[] {0, -10, -5}));
+        final MathTransform tr = new RectilinearTransform(
+                new double[] {0.5, 0}, new double[] {-180, 0}, new double[][] {null, depths});
+
+        final double[] points = {0, 0,   4, 1.5,   1, 3,   2, 4};
+        final double[] result = new double[points.length];
+        tr.transform(points, 0, result, 0, 4);
+        assertArrayEquals(new double[] {-180, 0,   -178, -20,   -179.5, -70,   -179, -110}, result, 1E-12);
+
+        tr.inverse().transform(result, 0, result, 0, 4);
+        assertArrayEquals(points, result, 1E-12);
+
+        final Matrix derivative = tr.derivative(new SimpleDirectPosition(2));
+        assertEquals(0.5, derivative.getElement(0, 0), 0);
+        assertEquals(-10, derivative.getElement(1, 1), 0);
+        assertEquals(0,   derivative.getElement(0, 1), 0);
+    }
+
+    /**
+     * Tests transforming points in place when the source and target regions overlap.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testOverlappingArrays() throws TransformException {
+        final MathTransform tr = new RectilinearTransform(
+                new double[] {0}, new double[] {0}, new double[][] {{10, 20, 40}});
+        final double[] data = {0, 1, 2, 0};
+        tr.transform(data, 0, data, 1, 3);
+        assertArrayEquals(new double[] {0, 10, 20, 40}, data, 0);
+        tr.inverse().transform(data, 1, data, 0, 3);
+        assertArrayEquals(new double[] {0, 1, 2, 40}, data, 0);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The netCDF wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.netcdf;
+
+import javax.measure.Unit;
+import javax.measure.format.ParserException;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link Units} class, in particular the cache of parsed unit symbols.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public strictfp class UnitsTest {
+    /**
+     * A symbol which can not be parsed, neither by the JSR-363 implementation
+     * nor by the fallback on hard-coded netCDF symbols.
+     */
+    private static final String INVALID = "not a unit ~~";
+
+    /**
+     * Tests that parsing the same symbol many times returns the same instance,
+     * and that leading and trailing spaces are ignored.
+     */
+    @Test
+    public void testCacheHit() {
+        final Unit<?> metre = Units.parse("m");
+        assertEquals(Units.METRE, metre);
+        assertSame(metre, Units.parse("m"));
+        assertSame(metre, Units.parse("  m "));
+        assertSame(Units.DEGREE, Units.parse("decimal_degrees"));
+        assertSame(Units.DEGREE, Units.parse("\tdecimal_degrees\n"));
+    }
+
+    /**
+     * Tests that a symbol which can not be parsed throws an exception on every call,
+     * not only on the first call which stored the failure in the cache.
+     */
+    @Test
+    public void testUnparseable() {
+        String message = null;
+        for (int i=0; i<3; i++) {
+            try {
+                Units.parse(i == 0 ? INVALID : ' ' + INVALID + ' ');
+                fail("Expected ParserException on attempt " + i);
+            } catch (ParserException e) {
+                assertEquals("Parsed string", INVALID, e.getParsedString());
+                if (message == null) {
+                    message = e.getMessage();
+                } else {
+                    assertEquals("Message", message, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests that the cache still gives correct results after more distinct symbols
+     * than its capacity have been parsed.
+     */
+    @Test
+    public void testManySymbols() {
+        final Unit<?> metre = Units.parse("m");
+        for (int i=0; i<300; i++) {
+            try {
+                Units.parse("unknown_" + i);
+                fail("Expected ParserException for symbol " + i);
+            } catch (ParserException e) {
+                assertEquals("unknown_" + i, e.getParsedString());
+            }
+        }
+        assertEquals(metre, Units.parse("m"));
+        assertSame(Units.DEGREE, Units.parse("decimal_degrees"));
+        try {
+            Units.parse("unknown_0");
+            fail("Expected ParserException after the cache has been cleared.");
+        } catch (ParserException e) {
+            assertEquals("unknown_0", e.getParsedString());
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The Proj.4 wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.proj4;
+
+import java.util.Map;
+import java.util.LinkedHashMap;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+
+
+/**
+ * A bounded cache of objects backed by {@literal Proj.4} native structures.
+ * Values are retained by soft references, so they can be reclaimed by the garbage collector
+ * when memory is low. In addition, at most {@code capacity} entries are retained; the least
+ * recently used entries are discarded first when that limit is exceeded.
+ *
+ * <p>This class is thread-safe. Values should be created outside the synchronization lock
+ * (native allocations may be slow) and stored with {@link #putIfAbsent(Object, Object)},
+ * which returns the value created by a concurrent thread if any.</p>
+ *
+ * @param  <K>  the type of keys.
+ * @param  <V>  the type of cached values.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class Cache<K,V> {
+    /**
+     * A soft reference to a cached value, which remembers its key
+     * in order to remove the entry after the value has been collected.
+     */
+    private static final class Ref<K,V> extends SoftReference<V> {
+        /** The key of the cached value. */
+        final K key;
+
+        /** Creates a new reference to the given value. */
+        Ref(final K key, final V value, final ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    /**
+     * The cached entries, in access order (least recently used first).
+     */
+    private final Map<K, Ref<K,V>> entries;
+
+    /**
+     * The queue where the garbage collector enqueues the references to collected values.
+     */
+    private final ReferenceQueue<V> collected;
+
+    /**
+     * Number of successful and unsuccessful lookups, and number of entries discarded
+     * either because the cache was full or because the garbage collector reclaimed them.
+     */
+    private long hits, misses, evictions;
+
+    /**
+     * Creates a new cache which will retain at most the given amount of entries.
+     *
+     * @param capacity  maximal number of entries to retain.
+     */
+    @SuppressWarnings("serial")
+    Cache(final int capacity) {
+        collected = new ReferenceQueue<>();
+        entries = new LinkedHashMap<K, Ref<K,V>>(16, 0.75f, true) {
+            @Override protected boolean removeEldestEntry(final Map.Entry<K, Ref<K,V>> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Removes the entries for values that have been reclaimed by the garbage collector.
+     * Must be invoked while holding the synchronization lock.
+     */
+    @SuppressWarnings("unchecked")
+    private void purge() {
+        Reference<? extends V> ref;
+        while ((ref = collected.poll()) != null) {
+            final K key = ((Ref<K,?>) ref).key;
+            if (entries.get(key) == ref) {
+                entries.remove(key);
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Returns the value cached for the given key, or {@code null} if none.
+     *
+     * @param  key  the key of the value to fetch.
+     * @return the cached value, or {@code null} if none.
+     */
+    synchronized V get(final K key) {
+        purge();
+        final Ref<K,V> entry = entries.get(key);
+        if (entry != null) {
+            final V value = entry.get();
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            entries.remove(key);
+            evictions++;
+        }
+        misses++;
+        return null;
+    }
+
+    /**
+     * Caches the given value for the given key, unless a value is already cached.
+     *
+     * @param  key    the key of the value to cache.
+     * @param  value  the value to cache.
+     * @return the value which was already cached, or {@code value} if none.
+     */
+    synchronized V putIfAbsent(final K key, final V value) {
+        purge();
+        final Ref<K,V> entry = entries.get(key);
+        if (entry != null) {
+            final V existing = entry.get();
+            if (existing != null) {
+                return existing;
+            }
+        }
+        entries.put(key, new Ref<>(key, value, collected));
+        return value;
+    }
+
+    /**
+     * Returns the number of hits, misses, evictions and the current number of entries.
+     *
+     * @return a snapshot of the cache statistics.
+     */
+    synchronized Map<String,Long> statistics() {
+        purge();
+        final Map<String,Long> stats = new LinkedHashMap<>(8);
+        stats.put("hits",      hits);
+        stats.put("misses",    misses);
+        stats.put("evictions", evictions);
+        stats.put("size",      (long) entries.size());
+        return stats;
+    }
+}
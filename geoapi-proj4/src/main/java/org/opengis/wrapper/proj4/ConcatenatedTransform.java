@@ -0,0 +1,342 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The Proj.4 wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.proj4;
+
+import org.opengis.util.FactoryException;
+import org.opengis.geometry.DirectPosition;
+import org.opengis.geometry.MismatchedDimensionException;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.opengis.referencing.operation.NoninvertibleTransformException;
+
+
+/**
+ * A {@literal Proj.4} operation preceded and/or followed by an affine transform, for example a
+ * conversion from pixel coordinates to map coordinates followed by an inverse map projection.
+ * The affine steps are applied in the same pass over the coordinates than the native call:
+ * coordinates are processed by chunks of bounded size, and each chunk goes through all steps
+ * before the next chunk is read.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class ConcatenatedTransform implements MathTransform {
+    /**
+     * Length of the temporary buffer used by the array transforms. This is the maximal number
+     * of ordinate values processed in each chunk.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * The temporary buffer used by the array transforms, one per thread.
+     */
+    private static final ThreadLocal<double[]> BUFFER = ThreadLocal.withInitial(() -> new double[BUFFER_LENGTH]);
+
+    /**
+     * The affine transform to apply before the {@literal Proj.4} operation, or {@code null} if none.
+     */
+    final Affine before;
+
+    /**
+     * The {@literal Proj.4} operation.
+     */
+    final PJOperation operation;
+
+    /**
+     * The affine transform to apply after the {@literal Proj.4} operation, or {@code null} if none.
+     */
+    final Affine after;
+
+    /**
+     * The inverse transform, created only when first needed.
+     */
+    private transient ConcatenatedTransform inverse;
+
+    /**
+     * Creates a new concatenated transform. At least one of the affine transforms shall be non-null.
+     * Callers are responsible for verifying that the operation dimension is 2 on the affine sides.
+     */
+    private ConcatenatedTransform(final Affine before, final PJOperation operation, final Affine after) {
+        this.before    = before;
+        this.operation = operation;
+        this.after     = after;
+    }
+
+    /**
+     * Returns the concatenation of the given transforms, which must be {@link Affine}, {@link PJOperation}
+     * or {@code ConcatenatedTransform} instances. Consecutive affine transforms are merged in a single one,
+     * and consecutive {@literal Proj.4} operations are merged in a single operation.
+     *
+     * @param  transform1  the first transform to apply to points.
+     * @param  transform2  the second transform to apply to points.
+     * @return the concatenated transform.
+     * @throws FactoryException if the transforms can not be concatenated.
+     */
+    static MathTransform create(final MathTransform transform1, final MathTransform transform2) throws FactoryException {
+        if (transform1.getTargetDimensions() != transform2.getSourceDimensions()) {
+            throw new FactoryException("Mismatched dimensions.");
+        }
+        Affine      b1 = null, a1 = null, b2 = null, a2 = null;
+        PJOperation o1 = null, o2 = null;
+        if      (transform1 instanceof Affine)      b1 = (Affine) transform1;
+        else if (transform1 instanceof PJOperation) o1 = (PJOperation) transform1;
+        else if (transform1 instanceof ConcatenatedTransform) {
+            final ConcatenatedTransform c = (ConcatenatedTransform) transform1;
+            b1 = c.before; o1 = c.operation; a1 = c.after;
+        } else {
+            throw new FactoryException("Unsupported transform: " + transform1.getClass().getName());
+        }
+        if      (transform2 instanceof Affine)      b2 = (Affine) transform2;
+        else if (transform2 instanceof PJOperation) o2 = (PJOperation) transform2;
+        else if (transform2 instanceof ConcatenatedTransform) {
+            final ConcatenatedTransform c = (ConcatenatedTransform) transform2;
+            b2 = c.before; o2 = c.operation; a2 = c.after;
+        } else {
+            throw new FactoryException("Unsupported transform: " + transform2.getClass().getName());
+        }
+        if (o1 == null) {
+            return create(concatenate(b1, b2), o2, a2);
+        }
+        if (o2 == null) {
+            return create(b1, o1, concatenate(a1, b2));
+        }
+        final Affine middle = concatenate(a1, b2);
+        if (middle != null && !middle.isIdentity()) {
+            throw new FactoryException("Can not concatenate an affine transform between two Proj.4 operations.");
+        }
+        return create(b1, new PJOperation(null, o1.source, o2.target, o1.perThread | o2.perThread), a2);
+    }
+
+    /**
+     * Returns a transform for the given steps, which may be {@code null}.
+     * At least one of the given steps shall be non-null.
+     */
+    private static MathTransform create(final Affine before, final PJOperation operation, final Affine after) {
+        if (operation == null) return before;
+        if (before == null && after == null) return operation;
+        return new ConcatenatedTransform(before, operation, after);
+    }
+
+    /**
+     * Returns the concatenation of the given affine transforms, either of them being possibly null.
+     */
+    private static Affine concatenate(final Affine first, final Affine second) {
+        if (first  == null) return second;
+        if (second == null) return first;
+        final Affine c = new Affine(first);
+        c.preConcatenate(second);
+        return c;
+    }
+
+    /**
+     * Returns the number of source dimensions, which is the operation source dimension.
+     */
+    @Override
+    public int getSourceDimensions() {
+        return operation.getSourceDimensions();
+    }
+
+    /**
+     * Returns the number of target dimensions, which is the operation target dimension.
+     */
+    @Override
+    public int getTargetDimensions() {
+        return operation.getTargetDimensions();
+    }
+
+    /**
+     * Returns {@code true} if all steps are identity transforms.
+     */
+    @Override
+    public boolean isIdentity() {
+        return (before == null || before.isIdentity()) && operation.isIdentity() && (after == null || after.isIdentity());
+    }
+
+    /**
+     * Transforms a single coordinate point by applying each step in sequence.
+     */
+    @Override
+    public DirectPosition transform(DirectPosition ptSrc, final DirectPosition ptDst)
+            throws MismatchedDimensionException, TransformException
+    {
+        if (before != null) {
+            ptSrc = before.transform(ptSrc, null);
+        }
+        if (after == null) {
+            return operation.transform(ptSrc, ptDst);
+        }
+        return after.transform(operation.transform(ptSrc, null), ptDst);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts) throws TransformException {
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, float[] dstPts, int dstOff, int numPts) throws TransformException {
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples.
+     */
+    @Override
+    public void transform(float[] srcPts, int srcOff, double[] dstPts, int dstOff, int numPts) throws TransformException {
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples.
+     */
+    @Override
+    public void transform(double[] srcPts, int srcOff, float[] dstPts, int dstOff, int numPts) throws TransformException {
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms coordinate tuples by chunks. For each chunk, the {@link #before} step reads the source
+     * coordinates into a temporary buffer, the {@link #operation} transforms the buffer in-place, and the
+     * {@link #after} step writes the buffer content into the destination array.
+     *
+     * @param  srcPts  the source coordinates, as a {@code double[]} or {@code float[]} array.
+     * @param  dstPts  the destination coordinates, as a {@code double[]} or {@code float[]} array.
+     */
+    private void transformByChunks(Object srcPts, int srcOff, final Object dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim    = getSourceDimensions();
+        final int tgtDim    = getTargetDimensions();
+        final int chunk     = BUFFER_LENGTH / Math.max(srcDim, tgtDim);
+        boolean descending  = false;
+        if (srcPts == dstPts && numPts > chunk) {
+            switch (PJOperation.iterationOrder(srcOff, srcDim, dstOff, tgtDim, numPts)) {
+                case -1: descending = true; break;
+                case  0: srcPts = PJOperation.copy(srcPts, srcOff, srcOff + srcDim * numPts); srcOff = 0; break;
+            }
+        }
+        final double[] buffer = BUFFER.get();
+        int remaining = numPts;
+        int index = descending ? numPts : 0;
+        while (remaining != 0) {
+            final int n = Math.min(chunk, remaining);
+            if (descending) index -= n;
+            final int s = srcOff + index * srcDim;
+            final int d = dstOff + index * tgtDim;
+            if (before != null) {
+                if (srcPts instanceof double[]) {
+                    before.transform((double[]) srcPts, s, buffer, 0, n);
+                } else {
+                    before.transform((float[]) srcPts, s, buffer, 0, n);
+                }
+            } else if (srcPts instanceof double[]) {
+                System.arraycopy(srcPts, s, buffer, 0, srcDim * n);
+            } else {
+                final float[] src = (float[]) srcPts;
+                for (int i = srcDim * n; --i >= 0;) {
+                    buffer[i] = src[s + i];
+                }
+            }
+            operation.transform(buffer, 0, buffer, 0, n);
+            if (after != null) {
+                if (dstPts instanceof double[]) {
+                    after.transform(buffer, 0, (double[]) dstPts, d, n);
+                } else {
+                    after.transform(buffer, 0, (float[]) dstPts, d, n);
+                }
+            } else if (dstPts instanceof double[]) {
+                System.arraycopy(buffer, 0, dstPts, d, tgtDim * n);
+            } else {
+                final float[] dst = (float[]) dstPts;
+                for (int i = tgtDim * n; --i >= 0;) {
+                    dst[d + i] = (float) buffer[i];
+                }
+            }
+            if (!descending) index += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Returns the derivative at the given point, computed by the chain rule from the derivatives of each step.
+     */
+    @Override
+    public Matrix derivative(DirectPosition point) throws TransformException {
+        final int srcDim = getSourceDimensions();
+        final int tgtDim = getTargetDimensions();
+        if (point.getDimension() != srcDim) {
+            throw new MismatchedDimensionException();
+        }
+        if (before != null) {
+            point = before.transform(point, null);
+        }
+        final Matrix m = operation.derivative(point);
+        final double[] elements = new double[tgtDim * srcDim];
+        for (int j=0; j<tgtDim; j++) {
+            for (int i=0; i<srcDim; i++) {
+                elements[j*srcDim + i] = m.getElement(j, i);
+            }
+        }
+        if (before != null) {                                       // Source dimension is 2.
+            for (int j=0; j<elements.length; j += 2) {
+                final double m0 = elements[j];
+                final double m1 = elements[j+1];
+                elements[j  ] = m0 * before.getScaleX() + m1 * before.getShearY();
+                elements[j+1] = m0 * before.getShearX() + m1 * before.getScaleY();
+            }
+        }
+        if (after != null) {                                        // Target dimension is 2.
+            for (int i=0; i<srcDim; i++) {
+                final double m0 = elements[i];
+                final double m1 = elements[i + srcDim];
+                elements[i         ] = after.getScaleX() * m0 + after.getShearX() * m1;
+                elements[i + srcDim] = after.getShearY() * m0 + after.getScaleY() * m1;
+            }
+        }
+        return new SimpleMatrix(srcDim, elements);
+    }
+
+    /**
+     * Returns the inverse of this transform.
+     */
+    @Override
+    public synchronized MathTransform inverse() throws NoninvertibleTransformException {
+        if (inverse == null) {
+            inverse = new ConcatenatedTransform(
+                    (after  != null) ? (Affine) after.inverse()  : null,
+                    (PJOperation) operation.inverse(),
+                    (before != null) ? (Affine) before.inverse() : null);
+            inverse.inverse = this;
+        }
+        return inverse;
+    }
+
+    /**
+     * Unsupported operation.
+     */
+    @Override
+    public String toWKT() throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+}
@@ -36,7 +36,7 @@ import org.opengis.referencing.operation.Projection;
  * @version 3.1
  * @since   3.1
  */
-class PJCRS extends PJObject implements CoordinateReferenceSystem, CoordinateSystem {
+class PJCRS extends PJObject implements CoordinateReferenceSystem, CoordinateSystem, AutoCloseable {
     /**
      * The geodetic datum, which is also the object to use for performing call to {@literal Proj.4} functions.
      */
@@ -67,6 +67,30 @@ class PJCRS extends PJObject implements CoordinateReferenceSystem, CoordinateSys
         }
     }
 
+    /**
+     * Releases the {@literal Proj.4} native structure of this CRS immediately instead of waiting
+     * for the garbage collector. This CRS, and the operations using it, can not be used anymore
+     * after this method call. The base CRS of a projected CRS is not closed by this method.
+     *
+     * <p>CRS created by {@link PJFactory.EPSG} are shared. This method has no effect on those CRS,
+     * which are released by the garbage collector after they have been evicted from the cache.</p>
+     */
+    @Override
+    public void close() {
+        pj.close();
+    }
+
+    /**
+     * Marks this CRS as shared by the cache of a factory, so that {@link #close()} has no effect.
+     * The base CRS of a projected CRS, if created later, will be shared too.
+     *
+     * @return {@code this}, for method call chaining.
+     */
+    final PJCRS share() {
+        pj.share();
+        return this;
+    }
+
     /**
      * Returns a string representation of this object, mostly for debugging purpose.
      * This string representation may change in any future version.
@@ -228,6 +252,9 @@ class PJCRS extends PJObject implements CoordinateReferenceSystem, CoordinateSys
                         }
                     }
                 }
+                if (pj.isShared()) {
+                    base.share();
+                }
                 baseCRS = new Geographic(name, base, dimension);
             }
             return baseCRS;
@@ -81,6 +81,11 @@ final class PJDatum extends PJ implements GeodeticDatum, PrimeMeridian, Ellipsoi
      */
     private final String definition;
 
+    /**
+     * Whether this structure is shared by the cache of a factory, in which case {@link #close()} does nothing.
+     */
+    private volatile boolean shared;
+
     /**
      * Creates a new {@code PJ} structure from the given {@literal Proj.4} data.
      *
@@ -108,6 +113,33 @@ final class PJDatum extends PJ implements GeodeticDatum, PrimeMeridian, Ellipsoi
         name = projected.name;
     }
 
+    /**
+     * Marks this structure as shared by the cache of a factory. After this method call, the native structure
+     * is released only by the garbage collector, when this object is no longer referenced by the cache or by
+     * any user.
+     */
+    final void share() {
+        shared = true;
+    }
+
+    /**
+     * Returns whether this structure is shared by the cache of a factory.
+     */
+    final boolean isShared() {
+        return shared;
+    }
+
+    /**
+     * Releases the native structure immediately, unless this structure {@linkplain #isShared() is shared}.
+     * Shared structures may be in use by other threads, so releasing them would cause a crash.
+     */
+    @Override
+    public void close() {
+        if (!shared) {
+            super.close();
+        }
+    }
+
     /**
      * Returns the definition cached at construction time. This avoid the need to
      * recreate the definition from Proj.4 native definition at every method call.
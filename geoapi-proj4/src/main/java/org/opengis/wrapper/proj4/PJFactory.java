@@ -14,10 +14,12 @@
 package org.opengis.wrapper.proj4;
 
 import java.util.Set;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.Collections;
+import java.util.Locale;
 import java.util.MissingResourceException;
-import java.awt.geom.AffineTransform;
+import java.nio.DoubleBuffer;
 import javax.measure.Unit;
 import javax.measure.quantity.Angle;
 
@@ -220,7 +222,79 @@ public class PJFactory implements Factory {
             final CoordinateReferenceSystem sourceCRS, final CoordinateReferenceSystem targetCRS)
             throws ClassCastException
     {
-        return new PJOperation(identifier, (PJCRS) sourceCRS, (PJCRS) targetCRS);
+        return new PJOperation(identifier, (PJCRS) sourceCRS, (PJCRS) targetCRS, false);
+    }
+
+    /**
+     * Transforms coordinate tuples stored in NIO buffers, for example direct buffers over memory-mapped files.
+     * The coordinates are read from the source buffer starting at its {@linkplain DoubleBuffer#position() position},
+     * and written in the destination buffer starting at its position. The buffer positions are not modified.
+     * The source and destination can be the same buffer instance for transforming coordinates in-place,
+     * but shall not be different buffers sharing overlapping memory regions.
+     *
+     * <p>Coordinates stored in a {@link java.nio.ByteBuffer} can be transformed by giving
+     * the {@link java.nio.ByteBuffer#asDoubleBuffer()} view to this method.</p>
+     *
+     * @param  operation  the operation created by this factory.
+     * @param  srcPts     the buffer containing the source coordinate tuples.
+     * @param  dstPts     the buffer where to write the transformed coordinate tuples.
+     * @param  numPts     the number of points to transform.
+     * @throws ClassCastException if the given operation is not an instance created by this class.
+     * @throws IndexOutOfBoundsException if a buffer does not have enough remaining values.
+     * @throws TransformException if the transformation failed.
+     */
+    public static void transform(final CoordinateOperation operation,
+            final DoubleBuffer srcPts, final DoubleBuffer dstPts, final int numPts)
+            throws ClassCastException, TransformException
+    {
+        ((PJOperation) operation.getMathTransform()).transform(srcPts, dstPts, numPts);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples using all processors. The array is split in ranges
+     * of points which are transformed concurrently in the {@linkplain java.util.concurrent.ForkJoinPool#commonPool()
+     * common pool}, each thread using its own copy of the {@literal Proj.4} structures. Small arrays are
+     * transformed sequentially in the caller thread.
+     *
+     * <p>The source and destination arrays can be the same array for transforming coordinates in-place.
+     * However in such case, the transform is executed sequentially if the source and target dimensions differ.</p>
+     *
+     * @param  operation  the operation created by this factory.
+     * @param  srcPts     the array containing the source coordinate tuples, starting at index 0.
+     * @param  dstPts     the array where to write the transformed coordinate tuples, starting at index 0.
+     * @param  numPts     the number of points to transform.
+     * @throws ClassCastException if the given operation is not an instance created by this class.
+     * @throws IndexOutOfBoundsException if an array is too short for the given number of points.
+     * @throws TransformException if the transformation failed.
+     */
+    public static void parallelTransform(final CoordinateOperation operation,
+            final double[] srcPts, final double[] dstPts, final int numPts)
+            throws ClassCastException, TransformException
+    {
+        ((PJOperation) operation.getMathTransform()).parallelTransform(srcPts, dstPts, numPts);
+    }
+
+    /**
+     * Estimates the derivatives of an operation at many points. The derivatives are estimated by central
+     * finite differences, with the perturbed points of many source points transformed in a single batch.
+     * The result is stored in the {@code out} array as consecutive matrices of target dimension rows and
+     * source dimension columns, with the column index varying fastest. This method is equivalent to
+     * invoking {@link MathTransform#derivative(org.opengis.geometry.DirectPosition)} for each point,
+     * but much faster.
+     *
+     * @param  operation  the operation created by this factory.
+     * @param  points     the source coordinate tuples, starting at index 0.
+     * @param  numPts     number of points where to evaluate the derivatives.
+     * @param  out        where to store the matrix elements, starting at index 0. The array length
+     *                    shall be at least {@code numPts} × source dimension × target dimension.
+     * @throws ClassCastException if the given operation is not an instance created by this class.
+     * @throws TransformException if the derivative can not be evaluated at a specified point.
+     */
+    public static void derivatives(final CoordinateOperation operation,
+            final double[] points, final int numPts, final double[] out)
+            throws ClassCastException, TransformException
+    {
+        ((PJOperation) operation.getMathTransform()).derivatives(points, numPts, out);
     }
 
     /**
@@ -543,6 +617,14 @@ public class PJFactory implements Factory {
      * However those methods will work if the {@link #createCoordinateReferenceSystem(String)}
      * method is overridden in order to return CRS objects of the appropriate type.
      *
+     * <div class="note"><b>Thread-safety:</b>
+     * the CRS created by this factory are cached and shared by all {@code EPSG} instances and all threads.
+     * The cache is a bounded LRU map guarded by a lock, so lookups are safe but serialized.
+     * The {@literal Proj.4} structure wrapped by a CRS is not thread-safe, so operations having a source
+     * or target CRS obtained from this factory never use that structure directly: they always give
+     * its own copy of the {@literal Proj.4} structures to each thread, as if they were created with
+     * {@link Operation#Operation(boolean) new Operation(true)}.</div>
+     *
      * @author  Martin Desruisseaux (Geomatys)
      * @version 3.1
      * @since   3.1
@@ -559,6 +641,18 @@ public class PJFactory implements Factory {
          */
         private Set<String> codes;
 
+        /**
+         * Maximal number of CRS retained in the {@link #CACHE}.
+         */
+        private static final int CACHE_CAPACITY = 100;
+
+        /**
+         * The CRS created by all {@code EPSG} factory instances, shared because the CRS are immutable.
+         * Keys are {@code "CODESPACE:code"} strings, with a {@code '*'} suffix for CRS using the
+         * Proj.4 axis order instead of the EPSG one.
+         */
+        private static final Cache<String,CoordinateReferenceSystem> CACHE = new Cache<>(CACHE_CAPACITY);
+
         /**
          * Creates a new coordinate operation factory which will create CRS with axis order
          * as declared in the EPSG database.
@@ -599,7 +693,7 @@ public class PJFactory implements Factory {
         @SuppressWarnings("ReturnOfCollectionOrArrayField")
         public synchronized Set<String> getAuthorityCodes(Class<? extends IdentifiedObject> type) throws FactoryException {
             if (codes == null) {
-                codes = Collections.unmodifiableSet(ResourcesLoader.getAxisOrientations().keySet());
+                codes = ResourcesLoader.getAxisOrientationCodes();
             }
             return codes;
         }
@@ -641,6 +735,10 @@ public class PJFactory implements Factory {
          * accepted (it doesn't need to be EPSG). If no authority is given, then {@code "EPSG:"}
          * is assumed.
          *
+         * <p>CRS instances are cached, so repeated requests for the same code return the same
+         * instance without allocating a new Proj.4 structure. Operations using the returned
+         * instance are safe for concurrent use, as described in the class javadoc.</p>
+         *
          * @param  code  the code of the CRS object to create.
          * @return a CRS created from the given code.
          * @throws FactoryException if the CRS object can not be created for the given code.
@@ -654,6 +752,28 @@ public class PJFactory implements Factory {
                 codespace = code.substring(0, s).trim();
                 code = code.substring(s+1).trim();
             }
+            String key = codespace.toUpperCase(Locale.ROOT) + ':' + code;
+            if (!useEpsgAxisOrder) {
+                key += '*';
+            }
+            CoordinateReferenceSystem crs = CACHE.get(key);
+            if (crs == null) {
+                crs = CACHE.putIfAbsent(key, ((PJCRS) createCoordinateReferenceSystem(codespace, code)).share());
+            }
+            return crs;
+        }
+
+        /**
+         * Creates a new CRS from the given codespace and code, without looking in the cache.
+         *
+         * @param  codespace  the authority, typically {@code "EPSG"}.
+         * @param  code       the code of the CRS object to create.
+         * @return a CRS created from the given code.
+         * @throws FactoryException if the CRS object can not be created for the given code.
+         */
+        private CoordinateReferenceSystem createCoordinateReferenceSystem(final String codespace, final String code)
+                throws FactoryException
+        {
             int dimension = 2;
             final StringBuilder definition = new StringBuilder(40);
             definition.append("+init=").append(codespace).append(':').append(code);
@@ -666,7 +786,7 @@ public class PJFactory implements Factory {
                  * have to be adjusted before to be given to Proj.4 since the later expects
                  * exactly 3 characters.
                  */
-                String orientation = ResourcesLoader.getAxisOrientations().get(code);
+                String orientation = ResourcesLoader.getAxisOrientation(code);
                 if (orientation != null) {
                     definition.append(' ').append(AXIS_ORDER_PARAM).append(orientation);
                     final int end = orientation.indexOf(AXIS_ORDER_SEPARATOR);
@@ -684,6 +804,17 @@ public class PJFactory implements Factory {
             }
         }
 
+        /**
+         * Returns statistics about the cache of CRS shared by all {@code EPSG} factory instances.
+         * The returned map contains the number of {@code "hits"}, {@code "misses"} and {@code "evictions"}
+         * since the class has been loaded, together with the current {@code "size"} of the cache.
+         *
+         * @return a snapshot of the CRS cache statistics.
+         */
+        public Map<String,Long> getCacheStatistics() {
+            return CACHE.statistics();
+        }
+
         /**
          * Delegates to {@link #createCoordinateReferenceSystem(String)} and casts the result.
          *
@@ -827,9 +958,35 @@ public class PJFactory implements Factory {
      */
     public static class Operation extends PJFactory implements CoordinateOperationFactory {
         /**
-         * Creates a new coordinate operation factory.
+         * {@code true} if the operations created by this factory use {@literal Proj.4} structures
+         * specific to each thread, or {@code false} if they share the structures of their CRS.
+         */
+        private final boolean perThread;
+
+        /**
+         * Creates a new coordinate operation factory. The operations created by this factory
+         * use the {@literal Proj.4} structures of their source and target CRS, which are not
+         * thread-safe, unless those CRS are shared by the {@link EPSG} factory cache.
          */
         public Operation() {
+            perThread = false;
+        }
+
+        /**
+         * Creates a new coordinate operation factory. Whether the operations created by this factory
+         * can be used concurrently by many threads is specified by the {@code perThread} argument.
+         *
+         * @param perThread {@code true} if the operations created by this factory should use
+         *        {@literal Proj.4} structures specific to each thread, or {@code false} for sharing
+         *        the structures of the source and target CRS. The default value is {@code false}.
+         *        The per-thread mode is always used for CRS shared by the {@link EPSG} factory cache.
+         *        The former is safe for concurrent use but allocates native structures for each
+         *        thread using an operation concurrently. Those structures are retained in a pool
+         *        of bounded size, and can be released immediately by casting the operation to
+         *        {@link AutoCloseable} and invoking its {@code close()} method.
+         */
+        public Operation(final boolean perThread) {
+            this.perThread = perThread;
         }
 
         /**
@@ -867,7 +1024,7 @@ public class PJFactory implements Factory {
                 id = createIdentifier(space, buffer.toString());
             }
             try {
-                return createOperation(id, sourceCRS, targetCRS);
+                return new PJOperation(id, (PJCRS) sourceCRS, (PJCRS) targetCRS, perThread);
             } catch (ClassCastException e) {
                 throw new FactoryException("The CRS must be instances created by PJFactory.", e);
             }
@@ -960,6 +1117,19 @@ public class PJFactory implements Factory {
      * @since   3.1
      */
     public static class Transform extends PJFactory implements MathTransformFactory {
+        /**
+         * Maximal number of transforms retained in the {@link #CACHE}.
+         */
+        private static final int CACHE_CAPACITY = 100;
+
+        /**
+         * The transforms created by all {@code Transform} factory instances, shared because the transforms
+         * are immutable and use {@literal Proj.4} structures specific to each thread. Keys are the name of
+         * the parameter group followed by the Proj.4 definition string in canonical form, as created by
+         * {@link #canonical(String, String)}.
+         */
+        private static final Cache<String,PJOperation> CACHE = new Cache<>(CACHE_CAPACITY);
+
         /**
          * Creates a new coordinate operation factory.
          */
@@ -1018,6 +1188,11 @@ public class PJFactory implements Factory {
         /**
          * Creates a math transform from the given Proj.4 parameters.
          *
+         * <p>Transforms are cached, so repeated requests for the same parameter values return
+         * the same instance. The order in which the parameters are declared in the group does
+         * not matter. Since the returned instance may be shared, it transforms coordinates with
+         * {@literal Proj.4} structures specific to each thread and can be used concurrently.</p>
+         *
          * @throws FactoryException if an error occurred while creating the transform.
          */
         @Override
@@ -1034,11 +1209,61 @@ public class PJFactory implements Factory {
                 }
             }
             final Identifier id = parameters.getDescriptor().getName();
-            final CoordinateReferenceSystem targetCRS = createCRS(id, id, definition.toString(), 2);
+            final String key = canonical(id.getCode(), definition.toString());
+            PJOperation transform = CACHE.get(key);
+            if (transform == null) {
+                transform = CACHE.putIfAbsent(key, createParameterizedTransform(id, definition.toString()).share());
+            }
+            return transform;
+        }
+
+        /**
+         * Creates a math transform from the given Proj.4 definition string, without looking in the cache.
+         * The transform uses {@literal Proj.4} structures specific to each thread.
+         *
+         * @param  id          the name of the parameter group.
+         * @param  definition  the Proj.4 definition string.
+         * @return the transform for the given definition.
+         * @throws FactoryException if an error occurred while creating the transform.
+         */
+        private PJOperation createParameterizedTransform(final Identifier id, final String definition)
+                throws FactoryException
+        {
+            final CoordinateReferenceSystem targetCRS = createCRS(id, id, definition, 2);
             final CoordinateReferenceSystem sourceCRS = (targetCRS instanceof ProjectedCRS)
                     ? ((ProjectedCRS) targetCRS).getBaseCRS()
                     : createCRS(PJIdentifier.WGS84, PJIdentifier.WGS84, "+init=epsg:4326", 2);
-            return createOperation(id, sourceCRS, targetCRS).getMathTransform();
+            return new PJOperation(id, (PJCRS) sourceCRS, (PJCRS) targetCRS, true);
+        }
+
+        /**
+         * Returns the cache key for the given name and Proj.4 definition string.
+         * The {@code "+proj"} parameter is kept first and all other parameters are sorted,
+         * so that two definitions which differ only by the parameter order get the same key.
+         *
+         * @param  name        the name of the parameter group.
+         * @param  definition  the Proj.4 definition string.
+         * @return the key to use in the transforms cache.
+         */
+        static String canonical(final String name, final String definition) {
+            final String[] tokens = definition.trim().split("\\s+");
+            Arrays.sort(tokens, 1, tokens.length);
+            final StringBuilder key = new StringBuilder(definition.length() + name.length() + 1).append(name);
+            for (final String token : tokens) {
+                key.append(' ').append(token);
+            }
+            return key.toString();
+        }
+
+        /**
+         * Returns statistics about the cache of transforms shared by all {@code Transform} factory instances.
+         * The returned map contains the number of {@code "hits"}, {@code "misses"} and {@code "evictions"}
+         * since the class has been loaded, together with the current {@code "size"} of the cache.
+         *
+         * @return a snapshot of the transforms cache statistics.
+         */
+        public Map<String,Long> getCacheStatistics() {
+            return CACHE.statistics();
         }
 
         /**
@@ -1061,8 +1286,11 @@ public class PJFactory implements Factory {
          * A concatenated transform acts in the same way as applying two
          * transforms, one after the other.
          *
-         * <p>This implementation can only concatenate two affine transforms,
-         * or to Proj.4 transforms. All other cases are unsupported.</p>
+         * <p>This implementation can concatenate affine transforms and Proj.4 transforms in any order,
+         * provided that there is no affine transform between two Proj.4 transforms. Consecutive affine
+         * transforms are merged in a single affine transform, and affine transforms before or after
+         * a Proj.4 transform are applied in the same pass over the coordinates than the native call.
+         * All other cases are unsupported.</p>
          *
          * @param  transform1  the first transform to apply to points.
          * @param  transform2  the second transform to apply to points.
@@ -1073,19 +1301,7 @@ public class PJFactory implements Factory {
         public MathTransform createConcatenatedTransform(final MathTransform transform1,
                 final MathTransform transform2) throws FactoryException
         {
-            if (transform1 instanceof AffineTransform && transform2 instanceof AffineTransform) {
-                final Affine c = new Affine((AffineTransform) transform1);
-                c.preConcatenate((AffineTransform) transform2);
-                return c;
-            }
-            final PJCRS sourceCRS, targetCRS;
-            try {
-                sourceCRS = ((PJOperation) transform1).source;
-                targetCRS = ((PJOperation) transform2).target;
-            } catch (ClassCastException e) {
-                throw new FactoryException(e);
-            }
-            return new PJOperation(null, sourceCRS, targetCRS);
+            return ConcatenatedTransform.create(transform1, transform2);
         }
 
         /**
@@ -14,6 +14,12 @@
 package org.opengis.wrapper.proj4;
 
 import java.util.Arrays;
+import java.nio.DoubleBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import org.opengis.geometry.DirectPosition;
 import org.opengis.geometry.MismatchedDimensionException;
 import org.opengis.metadata.Identifier;
@@ -21,39 +27,190 @@ import org.opengis.parameter.ParameterValueGroup;
 import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.crs.GeographicCRS;
 import org.opengis.referencing.crs.ProjectedCRS;
+import org.opengis.referencing.cs.AxisDirection;
 import org.opengis.referencing.operation.Matrix;
 import org.opengis.referencing.operation.MathTransform;
 import org.opengis.referencing.operation.OperationMethod;
 import org.opengis.referencing.operation.SingleOperation;
 import org.opengis.referencing.operation.TransformException;
 import org.proj4.PJ;
+import org.proj4.PJException;
 
 
 /**
  * A math transform which delegate its work to the {@literal Proj.4} native library.
  *
+ * <p>{@literal Proj.4} structures are not thread-safe. By default, an operation uses the structures
+ * of its source and target CRS, so callers shall not use the same operation (or operations sharing
+ * the same CRS) concurrently. In {@linkplain #perThread per-thread} mode, each thread uses its own
+ * copy of those structures and the operation can be used concurrently. The copies are taken from a
+ * pool of bounded size and can be released immediately by {@link #close()}.
+ * Operations between CRS shared by the cache of a factory always use the per-thread mode,
+ * since other threads may use the same CRS without the caller's knowledge.</p>
+ *
  * @author  Martin Desruisseaux (Geomatys)
  * @version 3.1
  * @since   3.1
  */
-class PJOperation extends PJObject implements SingleOperation, MathTransform {
+class PJOperation extends PJObject implements SingleOperation, MathTransform, AutoCloseable {
+    /**
+     * Length of the temporary buffer used by {@link #transformByChunks transformByChunks(…)}.
+     * This is the maximal number of ordinate values transformed in a single native call
+     * when the coordinates can not be transformed in-place.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
+    /**
+     * The temporary buffer used by {@link #transformByChunks transformByChunks(…)}, one per thread.
+     */
+    private static final ThreadLocal<double[]> BUFFER = ThreadLocal.withInitial(() -> new double[BUFFER_LENGTH]);
+
+    /**
+     * Minimal number of points in each task created by {@link #parallelTransform parallelTransform(…)}.
+     * Batches smaller than twice this threshold are transformed sequentially in the caller thread.
+     */
+    private static final int PARALLEL_THRESHOLD = 8192;
+
+    /**
+     * Maximal number of perturbed points transformed in a single batch by {@link #derivatives derivatives(…)}.
+     */
+    private static final int DERIVATIVE_BATCH = 1024;
+
+    /**
+     * Maximal number of idle {@literal Proj.4} structure pairs retained by an operation in per-thread mode.
+     * Threads using the operation when the pool is empty allocate new structures, which are released after
+     * use if the pool is full.
+     */
+    private static final int POOL_CAPACITY = Runtime.getRuntime().availableProcessors();
+
     /**
      * The source and target CRS.
      */
     final PJCRS source, target;
 
+    /**
+     * {@code true} if coordinates are transformed using {@literal Proj.4} structures specific to each thread,
+     * or {@code false} for using the structures of the {@link #source} and {@link #target} CRS.
+     * Proj.4 structures are not thread-safe, so the latter case requires callers to avoid concurrent calls.
+     */
+    final boolean perThread;
+
+    /**
+     * Idle copies of the {@link #source} and {@link #target} {@literal Proj.4} structures, as pairs
+     * which can be used by any thread, or {@code null} if {@link #perThread} is {@code false}.
+     * A pair is removed from this pool while in use by a thread.
+     */
+    private final BlockingQueue<PJ[]> pool;
+
+    /**
+     * Whether this operation is shared by the cache of a factory, in which case {@link #close()} does nothing.
+     */
+    private volatile boolean shared;
+
+    /**
+     * Whether {@link #close()} has been invoked. After that call, the structures
+     * used in {@linkplain #perThread per-thread} mode are no longer returned to the pool.
+     */
+    private volatile boolean closed;
+
     /**
      * The inverse transform, created only when first needed.
      */
     private transient PJOperation inverse;
 
     /**
-     * Creates a new operation for the given source and target CRS.
+     * The equivalent operation using {@literal Proj.4} structures specific to each thread,
+     * created only when first needed by {@link #parallelTransform parallelTransform(…)}.
      */
-    PJOperation(final Identifier name, final PJCRS source, final PJCRS target) {
+    private transient PJOperation concurrent;
+
+    /**
+     * Creates a new operation for the given source and target CRS. The per-thread mode is forced
+     * if the source or target CRS is {@linkplain PJCRS#share() shared} by the cache of a factory.
+     *
+     * @param perThread  whether to use {@literal Proj.4} structures specific to each thread.
+     */
+    PJOperation(final Identifier name, final PJCRS source, final PJCRS target, boolean perThread) {
         super(name);
-        this.source = source;
-        this.target = target;
+        perThread |= source.pj.isShared() || target.pj.isShared();
+        this.source    = source;
+        this.target    = target;
+        this.perThread = perThread;
+        pool = perThread ? new ArrayBlockingQueue<>(POOL_CAPACITY) : null;
+    }
+
+    /**
+     * Takes a pair of {@literal Proj.4} structures from the pool, or creates a new pair if the pool is empty.
+     * The caller shall give the pair back to {@link #release(PJ[])} after use.
+     */
+    private PJ[] acquire() {
+        final PJ[] pj = pool.poll();
+        return (pj != null) ? pj : new PJ[] {
+            new PJ(source.pj.getDefinition()),
+            new PJ(target.pj.getDefinition())
+        };
+    }
+
+    /**
+     * Gives back to the pool a pair of structures obtained by {@link #acquire()},
+     * or releases the native structures if the pool is full or this operation is closed.
+     */
+    private void release(final PJ[] pj) {
+        if (closed || !pool.offer(pj)) {
+            pj[0].close();
+            pj[1].close();
+        } else if (closed) {
+            drain();                                // close() has been invoked concurrently.
+        }
+    }
+
+    /**
+     * Releases the native structures of all idle pairs in the pool.
+     */
+    private void drain() {
+        PJ[] pj;
+        while ((pj = pool.poll()) != null) {
+            pj[0].close();
+            pj[1].close();
+        }
+    }
+
+    /**
+     * Transforms in-place the coordinates in the given array, using the {@literal Proj.4} structures
+     * of the source and target CRS or structures taken from the pool.
+     */
+    private void transformInPlace(final int dimension, final double[] coordinates, final int offset, final int numPts)
+            throws PJException
+    {
+        if (pool != null) {
+            final PJ[] pj = acquire();
+            try {
+                pj[0].transform(pj[1], dimension, coordinates, offset, numPts);
+            } finally {
+                release(pj);
+            }
+        } else {
+            source.pj.transform(target.pj, dimension, coordinates, offset, numPts);
+        }
+    }
+
+    /**
+     * Transforms in-place the coordinates in the given buffer, using the {@literal Proj.4} structures
+     * of the source and target CRS or structures taken from the pool.
+     */
+    private void transformInPlace(final int dimension, final DoubleBuffer coordinates, final int numPts)
+            throws PJException
+    {
+        if (pool != null) {
+            final PJ[] pj = acquire();
+            try {
+                pj[0].transform(pj[1], dimension, coordinates, numPts);
+            } finally {
+                release(pj);
+            }
+        } else {
+            source.pj.transform(target.pj, dimension, coordinates, numPts);
+        }
     }
 
     /**
@@ -112,7 +269,7 @@ class PJOperation extends PJObject implements SingleOperation, MathTransform {
         for (int i=0; i<srcDim; i++) {
             ordinates[i] = ptSrc.getOrdinate(i);
         }
-        source.pj.transform(target.pj, ordinates.length, ordinates, 0, 1);
+        transformInPlace(ordinates.length, ordinates, 0, 1);
         if (ptDst != null) {
             if (ptDst.getDimension() != tgtDim) {
                 throw new MismatchedDimensionException();
@@ -139,131 +296,434 @@ class PJOperation extends PJObject implements SingleOperation, MathTransform {
     {
         final int srcDim = source.getDimension();
         final int tgtDim = target.getDimension();
-        if (srcDim == tgtDim) {
-            if (srcPts != dstPts || srcOff != dstOff) {
-                final int length = tgtDim * numPts;
-                System.arraycopy(srcPts, srcOff, dstPts, dstOff, length);
-            }
-        } else {
-            // TODO: need special check for overlapping arrays.
-            throw new TransformException("Transformation between CRS of different dimensions not yet supported.");
+        if (srcDim != tgtDim) {
+            transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
+        }
+        if (srcPts != dstPts || srcOff != dstOff) {
+            final int length = tgtDim * numPts;
+            System.arraycopy(srcPts, srcOff, dstPts, dstOff, length);
         }
-        source.pj.transform(target.pj, tgtDim, dstPts, dstOff, numPts);
+        transformInPlace(tgtDim, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms an array of coordinate tuples.
+     */
+    @Override
+    public void transform(final float[] srcPts, final int srcOff,
+                          final float[] dstPts, final int dstOff,
+                          final int numPts) throws TransformException
+    {
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
     }
 
     /**
      * Transforms an array of coordinate tuples.
      */
     @Override
-    public void transform(final float[] srcPts, int srcOff,
-                          final float[] dstPts, int dstOff,
-                          int numPts) throws TransformException
+    public void transform(final float[]  srcPts, final int srcOff,
+                          final double[] dstPts, final int dstOff,
+                          final int numPts) throws TransformException
     {
-        if (numPts > 0) {
-            final int srcDim = source.getDimension();
-            final int tgtDim = target.getDimension();
-            final int dimension = Math.min(srcDim, tgtDim);
-            final int length = dimension * numPts;
-            final double[] copy = new double[length];
-            int skip = srcDim - dimension;
-            int stop = (skip == 0) ? length : dimension;
-            for (int i=0;;) {
-                copy[i] = srcPts[srcOff + i];
-                if (++i == stop) {
-                    if (i == length) break;
-                    srcOff += skip;
-                    stop += dimension;
-                }
-            }
-            source.pj.transform(target.pj, dimension, copy, 0, numPts);
-            skip = tgtDim - dimension;
-            stop = (skip == 0) ? length : dimension;
-            for (int i=0;;) {
-                dstPts[dstOff + i] = (float) copy[i];
-                if (++i == stop) {
-                    if (i == length) break;
-                    dstOff += skip;
-                    stop += dimension;
-                }
-            }
+        final int srcDim = source.getDimension();
+        final int tgtDim = target.getDimension();
+        if (srcDim != tgtDim) {
+            transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+            return;
         }
+        final int length = tgtDim * numPts;
+        for (int i=0; i<length; i++) {
+            dstPts[dstOff + i] = srcPts[srcOff + i];
+        }
+        transformInPlace(tgtDim, dstPts, dstOff, numPts);
     }
 
     /**
      * Transforms an array of coordinate tuples.
      */
     @Override
-    public void transform(final float[]  srcPts, int srcOff,
-                          final double[] dstPts, int dstOff,
+    public void transform(final double[] srcPts, final int srcOff,
+                          final float[]  dstPts, final int dstOff,
                           final int numPts) throws TransformException
     {
-        if (numPts > 0) {
-            final int srcDim = source.getDimension();
-            final int tgtDim = target.getDimension();
-            final int dimension = Math.min(srcDim, tgtDim);
-            final int skipS  = srcDim - dimension;
-            final int skipT  = tgtDim - dimension;
-            final int length = dimension * numPts;
-            int stop = (skipS == 0 && skipT == 0) ? length : dimension;
-            if (skipT != 0) {
-                Arrays.fill(dstPts, dstOff, dstOff + tgtDim * numPts, Double.NaN);
+        transformByChunks(srcPts, srcOff, dstPts, dstOff, numPts);
+    }
+
+    /**
+     * Transforms coordinate tuples stored in NIO buffers, starting at the buffer positions.
+     * The buffer positions are not modified. If both buffers are backed by Java arrays,
+     * then this method delegates to {@link #transform(double[], int, double[], int, int)}.
+     * Otherwise the coordinates are transformed in-place in the destination buffer if possible,
+     * or by chunks of bounded size.
+     *
+     * <p>The source and destination buffers shall not share overlapping memory regions,
+     * unless they are the same buffer instance.</p>
+     */
+    void transform(final DoubleBuffer srcPts, final DoubleBuffer dstPts, final int numPts)
+            throws TransformException
+    {
+        final int srcDim = source.getDimension();
+        final int tgtDim = target.getDimension();
+        if (numPts < 0 || (long) srcDim * numPts > srcPts.remaining()
+                       || (long) tgtDim * numPts > dstPts.remaining())
+        {
+            throw new IndexOutOfBoundsException("Illegal number of points: " + numPts);
+        }
+        if (srcPts.hasArray() && dstPts.hasArray()) {
+            transform(srcPts.array(), srcPts.arrayOffset() + srcPts.position(),
+                      dstPts.array(), dstPts.arrayOffset() + dstPts.position(), numPts);
+        } else if (srcDim == tgtDim) {
+            if (srcPts != dstPts) {
+                final DoubleBuffer values = srcPts.duplicate();
+                values.limit(values.position() + srcDim * numPts);
+                dstPts.duplicate().put(values);
             }
-            for (int i=0;;) {
-                dstPts[dstOff + i] = srcPts[srcOff + i];
-                if (++i == stop) {
-                    if (i == length) break;
-                    srcOff += skipS;
-                    dstOff += skipT;
-                    stop += dimension;
+            transformInPlace(tgtDim, dstPts, numPts);
+        } else {
+            transformByChunks(srcPts, srcPts.position(), dstPts, dstPts.position(), numPts);
+        }
+    }
+
+    /**
+     * Transforms an array of coordinate tuples using many threads. The source and destination arrays
+     * can be the same array only if the source and target dimensions are equal. Otherwise this method
+     * fallbacks on sequential execution. Each thread of the {@linkplain ForkJoinPool#commonPool() common
+     * pool} uses its own copy of the {@literal Proj.4} structures.
+     */
+    void parallelTransform(final double[] srcPts, final double[] dstPts, final int numPts) throws TransformException {
+        final int srcDim = source.getDimension();
+        final int tgtDim = target.getDimension();
+        if (numPts < 0 || (long) srcDim * numPts > srcPts.length || (long) tgtDim * numPts > dstPts.length) {
+            throw new IndexOutOfBoundsException("Illegal number of points: " + numPts);
+        }
+        if (numPts < 2*PARALLEL_THRESHOLD || (srcPts == dstPts && srcDim != tgtDim)) {
+            transform(srcPts, 0, dstPts, 0, numPts);
+            return;
+        }
+        final PJOperation op;
+        synchronized (this) {
+            if (concurrent == null) {
+                concurrent = perThread ? this : new PJOperation(name, source, target, true);
+            }
+            op = concurrent;
+        }
+        try {
+            ForkJoinPool.commonPool().invoke(new ParallelTransform(op, srcPts, dstPts, 0, numPts));
+        } catch (CompletionException e) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof TransformException) {
+                    throw (TransformException) cause;
                 }
             }
-            source.pj.transform(target.pj, tgtDim, dstPts, dstOff, numPts);
+            throw e;
         }
     }
 
     /**
-     * Transforms an array of coordinate tuples.
+     * A task transforming a range of points for {@link PJOperation#parallelTransform parallelTransform(…)}.
+     * The task is split in two halves until the number of points is below twice {@link #PARALLEL_THRESHOLD}.
      */
-    @Override
-    public void transform(final double[] srcPts, int srcOff,
-                          final float[]  dstPts, int dstOff,
-                          final int numPts) throws TransformException
+    @SuppressWarnings("serial")
+    private static final class ParallelTransform extends RecursiveAction {
+        /** The operation to apply, which shall use {@literal Proj.4} structures specific to each thread. */
+        private final PJOperation op;
+
+        /** The source and destination coordinates. */
+        private final double[] srcPts, dstPts;
+
+        /** Index of the first point (inclusive) and last point (exclusive) to transform. */
+        private final int lower, upper;
+
+        /** Creates a new task for the given range of points. */
+        ParallelTransform(final PJOperation op, final double[] srcPts, final double[] dstPts,
+                final int lower, final int upper)
+        {
+            this.op     = op;
+            this.srcPts = srcPts;
+            this.dstPts = dstPts;
+            this.lower  = lower;
+            this.upper  = upper;
+        }
+
+        /** Transforms the points, or splits this task in two smaller tasks. */
+        @Override
+        protected void compute() {
+            if (upper - lower < 2*PARALLEL_THRESHOLD) {
+                try {
+                    op.transform(srcPts, lower * op.getSourceDimensions(),
+                                 dstPts, lower * op.getTargetDimensions(), upper - lower);
+                } catch (TransformException e) {
+                    throw new CompletionException(e);
+                }
+            } else {
+                final int middle = (lower + upper) >>> 1;
+                invokeAll(new ParallelTransform(op, srcPts, dstPts, lower, middle),
+                          new ParallelTransform(op, srcPts, dstPts, middle, upper));
+            }
+        }
+    }
+
+    /**
+     * Transforms coordinate tuples through a temporary buffer of bounded size. This method is used when the
+     * coordinates can not be transformed in-place in the destination array, either because the source and
+     * target dimensions differ or because the destination array is of type {@code float[]}.
+     *
+     * <p>The buffer tuples have the largest of source and target dimensions, so {@literal Proj.4} sees
+     * the <var>z</var> value when transforming from or to a three-dimensional CRS. Missing <var>z</var>
+     * values are set to 0 (on the ellipsoid surface) and other missing values are set to NaN.</p>
+     *
+     * @param  srcPts  the source coordinates, as a {@code double[]}, {@code float[]} or {@link DoubleBuffer}.
+     * @param  dstPts  the destination coordinates, as a {@code double[]}, {@code float[]} or {@link DoubleBuffer}.
+     */
+    private void transformByChunks(Object srcPts, int srcOff, final Object dstPts, final int dstOff,
+            final int numPts) throws TransformException
+    {
+        if (numPts <= 0) {
+            return;
+        }
+        final int srcDim    = source.getDimension();
+        final int tgtDim    = target.getDimension();
+        final int dimension = Math.max(srcDim, tgtDim);
+        final int chunk     = BUFFER_LENGTH / dimension;
+        boolean descending  = false;
+        if (srcPts == dstPts && numPts > chunk) {
+            switch (iterationOrder(srcOff, srcDim, dstOff, tgtDim, numPts)) {
+                case -1: descending = true; break;
+                case  0: srcPts = copy(srcPts, srcOff, srcOff + srcDim * numPts); srcOff = 0; break;
+            }
+        }
+        final double[] buffer = BUFFER.get();
+        int remaining = numPts;
+        int index = descending ? numPts : 0;
+        while (remaining != 0) {
+            final int n = Math.min(chunk, remaining);
+            if (descending) index -= n;
+            load (srcPts, srcOff + index * srcDim, srcDim, buffer, dimension, n);
+            transformInPlace(dimension, buffer, 0, n);
+            store(buffer, dimension, dstPts, dstOff + index * tgtDim, tgtDim, n);
+            if (!descending) index += n;
+            remaining -= n;
+        }
+    }
+
+    /**
+     * Returns the order in which to process chunks of points when the source and destination are the same array.
+     * Since a whole chunk is copied in a buffer before to write the results, we only need to ensure that writing
+     * a chunk does not overwrite the source coordinates of chunks not yet processed. The difference between the
+     * position where a point is written and the position where it is read is a linear function of the point index,
+     * so checking the first and last points is sufficient.
+     *
+     * @return +1 for ascending order, -1 for descending order, or 0 if neither order is safe.
+     *         In the latter case (rare), the caller needs to copy the source coordinates.
+     */
+    static int iterationOrder(final int srcOff, final int srcDim, final int dstOff, final int tgtDim, final int numPts) {
+        if (srcOff + srcDim * numPts <= dstOff || dstOff + tgtDim * numPts <= srcOff) {
+            return +1;                                          // No overlap.
+        }
+        final long first = (dstOff - srcOff) + (long) (tgtDim - srcDim);
+        final long last  = (dstOff - srcOff) + (long) (tgtDim - srcDim) * (numPts - 1);
+        if (first <= 0 && last <= 0) return +1;
+        if (first >= 0 && last >= 0) return -1;
+        return 0;
+    }
+
+    /**
+     * Returns a copy of the given range of values.
+     *
+     * @param  srcPts  the {@code double[]}, {@code float[]} or {@link DoubleBuffer} to copy.
+     * @return a copy of the given range as a {@code double[]} or {@code float[]} array.
+     */
+    static Object copy(final Object srcPts, final int lower, final int upper) {
+        if (srcPts instanceof double[]) {
+            return Arrays.copyOfRange((double[]) srcPts, lower, upper);
+        } else if (srcPts instanceof float[]) {
+            return Arrays.copyOfRange((float[]) srcPts, lower, upper);
+        } else {
+            final double[] copy = new double[upper - lower];
+            load(srcPts, lower, 1, copy, 1, copy.length);
+            return copy;
+        }
+    }
+
+    /**
+     * Copies coordinate tuples from the given source array to the given buffer.
+     * Ordinates missing in the source tuples are filled as documented in {@link #transformByChunks}.
+     */
+    private static void load(final Object srcPts, int srcOff, final int srcDim,
+            final double[] buffer, final int dimension, final int numPts)
     {
-        if (numPts > 0) {
-            final int srcDim = source.getDimension();
-            final int tgtDim = target.getDimension();
-            final int dimension = Math.min(srcDim, tgtDim);
-            final int length = dimension * numPts;
-            final double[] copy;
+        if (srcPts instanceof double[]) {
+            final double[] src = (double[]) srcPts;
             if (srcDim == dimension) {
-                copy = Arrays.copyOfRange(srcPts, srcOff, srcOff + length);
-            } else {
-                copy = new double[length];
-                for (int i=0; i!=length; i+=dimension) {
-                    System.arraycopy(srcPts, srcOff, copy, i, dimension);
-                    srcOff += srcDim;
+                System.arraycopy(src, srcOff, buffer, 0, dimension * numPts);
+                return;
+            }
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                System.arraycopy(src, srcOff, buffer, j, srcDim);
+                fillMissing(buffer, j, srcDim, dimension);
+                srcOff += srcDim;
+            }
+        } else if (srcPts instanceof float[]) {
+            final float[] src = (float[]) srcPts;
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                for (int i=0; i<srcDim; i++) {
+                    buffer[j + i] = src[srcOff++];
                 }
+                fillMissing(buffer, j, srcDim, dimension);
+            }
+        } else {
+            final DoubleBuffer src = ((DoubleBuffer) srcPts).duplicate();
+            src.position(srcOff);
+            if (srcDim == dimension) {
+                src.get(buffer, 0, dimension * numPts);
+                return;
+            }
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                src.get(buffer, j, srcDim);
+                fillMissing(buffer, j, srcDim, dimension);
+            }
+        }
+    }
+
+    /**
+     * Sets the ordinates in the {@code [srcDim … dimension-1]} range of the tuple starting at index {@code j}.
+     */
+    private static void fillMissing(final double[] buffer, final int j, int srcDim, final int dimension) {
+        while (srcDim < dimension) {
+            buffer[j + srcDim] = (srcDim == 2) ? 0 : Double.NaN;
+            srcDim++;
+        }
+    }
+
+    /**
+     * Copies coordinate tuples from the given buffer to the given destination array.
+     * Ordinates in excess in the buffer tuples are discarded.
+     */
+    private static void store(final double[] buffer, final int dimension,
+            final Object dstPts, int dstOff, final int tgtDim, final int numPts)
+    {
+        if (dstPts instanceof double[]) {
+            final double[] dst = (double[]) dstPts;
+            if (tgtDim == dimension) {
+                System.arraycopy(buffer, 0, dst, dstOff, dimension * numPts);
+                return;
             }
-            source.pj.transform(target.pj, dimension, copy, 0, numPts);
-            final int skip = tgtDim - dimension;
-            int stop = (skip == 0) ? length : dimension;
-            for (int i=0;;) {
-                dstPts[dstOff + i] = (float) copy[i];
-                if (++i == stop) {
-                    if (i == length) break;
-                    dstOff += skip;
-                    stop += dimension;
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                System.arraycopy(buffer, j, dst, dstOff, tgtDim);
+                dstOff += tgtDim;
+            }
+        } else if (dstPts instanceof float[]) {
+            final float[] dst = (float[]) dstPts;
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                for (int i=0; i<tgtDim; i++) {
+                    dst[dstOff++] = (float) buffer[j + i];
                 }
             }
+        } else {
+            final DoubleBuffer dst = ((DoubleBuffer) dstPts).duplicate();
+            dst.position(dstOff);
+            if (tgtDim == dimension) {
+                dst.put(buffer, 0, dimension * numPts);
+                return;
+            }
+            for (int j=0; j < dimension * numPts; j += dimension) {
+                dst.put(buffer, j, tgtDim);
+            }
         }
     }
 
     /**
-     * The {@literal Proj.4} library does not provide derivative functions.
+     * Returns the derivative of this transform at the given point. The {@literal Proj.4} library does
+     * not provide derivative functions, so the derivative is estimated by central finite differences
+     * as documented in {@link #derivatives derivatives(…)}.
+     *
+     * @param  point  the coordinate point where to evaluate the derivative.
+     * @return the derivative at the specified point.
+     * @throws MismatchedDimensionException if the given point does not have the source dimension.
+     * @throws TransformException if the derivative can not be evaluated at the specified point.
      */
     @Override
-    public Matrix derivative(DirectPosition point) throws TransformException {
-        throw new TransformException("Not supported yet.");
+    public Matrix derivative(final DirectPosition point) throws TransformException {
+        final int srcDim = source.getDimension();
+        if (point.getDimension() != srcDim) {
+            throw new MismatchedDimensionException();
+        }
+        final double[] ordinates = new double[srcDim];
+        for (int i=0; i<srcDim; i++) {
+            ordinates[i] = point.getOrdinate(i);
+        }
+        final double[] elements = new double[target.getDimension() * srcDim];
+        derivatives(ordinates, 1, elements);
+        return new SimpleMatrix(srcDim, elements);
+    }
+
+    /**
+     * Estimates the derivatives of this transform at the given points by central finite differences.
+     * For each point, this method transforms 2×<var>n</var> points perturbed by ± a small step along
+     * each of the <var>n</var> source dimensions. The steps are 1E-6 degree for geographic coordinates
+     * and 0.01 linear unit otherwise. Perturbed points of many source points are transformed together
+     * in batches, so a whole grid of derivatives requires few native calls.
+     *
+     * <p>The derivatives are stored in the {@code out} array as consecutive matrices of
+     * {@linkplain #getTargetDimensions() target dimension} rows and {@linkplain #getSourceDimensions()
+     * source dimension} columns, with the column index varying fastest.</p>
+     *
+     * @param  points  the source coordinate tuples, starting at index 0.
+     * @param  numPts  number of points where to evaluate the derivatives.
+     * @param  out     where to store the matrix elements, starting at index 0.
+     * @throws TransformException if the derivative can not be evaluated at a specified point.
+     */
+    void derivatives(final double[] points, final int numPts, final double[] out) throws TransformException {
+        final int srcDim   = source.getDimension();
+        final int tgtDim   = target.getDimension();
+        final int perPoint = 2 * srcDim;                                    // Number of perturbed points per point.
+        final int batch    = Math.min(numPts, Math.max(1, DERIVATIVE_BATCH / perPoint));
+        final double[] steps = new double[srcDim];
+        for (int j=0; j<srcDim; j++) {
+            steps[j] = (j < 2 && source instanceof PJCRS.Geographic) ? 1E-6 : 1E-2;
+        }
+        final boolean[] isLongitude = new boolean[tgtDim];
+        if (target instanceof PJCRS.Geographic) {
+            for (int i=0; i<tgtDim; i++) {
+                final AxisDirection dir = target.getAxis(i).getDirection();
+                isLongitude[i] = (dir == AxisDirection.EAST || dir == AxisDirection.WEST);
+            }
+        }
+        final double[] perturbed = new double[batch * perPoint * srcDim];
+        final double[] results   = new double[batch * perPoint * tgtDim];
+        for (int start=0; start < numPts; start += batch) {
+            final int n = Math.min(batch, numPts - start);
+            int k = 0;
+            for (int p=0; p<n; p++) {
+                final int base = (start + p) * srcDim;
+                for (int j=0; j<srcDim; j++) {
+                    System.arraycopy(points, base, perturbed, k, srcDim);
+                    perturbed[k + j] += steps[j];
+                    k += srcDim;
+                    System.arraycopy(points, base, perturbed, k, srcDim);
+                    perturbed[k + j] -= steps[j];
+                    k += srcDim;
+                }
+            }
+            transform(perturbed, 0, results, 0, n * perPoint);
+            k = 0;
+            for (int p=0; p<n; p++) {
+                final int base = (start + p) * (tgtDim * srcDim);
+                for (int j=0; j<srcDim; j++) {
+                    final int plus  = k;
+                    final int minus = k + tgtDim;
+                    for (int i=0; i<tgtDim; i++) {
+                        double delta = results[plus + i] - results[minus + i];
+                        if (isLongitude[i] && Math.abs(delta) > 180) {
+                            delta -= Math.copySign(360, delta);             // Perturbation crossed the anti-meridian.
+                        }
+                        out[base + i*srcDim + j] = delta / (2 * steps[j]);
+                    }
+                    k += 2 * tgtDim;
+                }
+            }
+        }
     }
 
     /**
@@ -272,18 +732,71 @@ class PJOperation extends PJObject implements SingleOperation, MathTransform {
     @Override
     public synchronized MathTransform inverse() {
         if (inverse == null) {
-            inverse = new PJOperation(name, target, source);
+            inverse = new PJOperation(name, target, source, perThread);
             inverse.inverse = this;
         }
         return inverse;
     }
 
+    /**
+     * Marks this operation and its source and target CRS as shared by the cache of a factory,
+     * so that {@link #close()} has no effect.
+     *
+     * @return {@code this}, for method call chaining.
+     */
+    final PJOperation share() {
+        source.share();
+        target.share();
+        shared = true;
+        return this;
+    }
+
+    /**
+     * Releases the {@literal Proj.4} structures allocated by this operation in {@linkplain #perThread per-thread}
+     * mode, including the structures of the inverse operation and of the operation used for parallel transforms.
+     * The structures of the source and target CRS are not released. This operation can still be used after
+     * this method call, but each call will allocate and release new structures in per-thread mode.
+     * This method has no effect on operations shared by the cache of a factory.
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            return;
+        }
+        final PJOperation inv;
+        synchronized (this) {
+            inv = inverse;
+        }
+        closeOwned();
+        if (inv != null) {
+            inv.closeOwned();
+        }
+    }
+
+    /**
+     * Releases the structures of this operation and of the operation used for parallel transforms.
+     * Contrarily to {@link #close()}, this method does not close the inverse operation.
+     */
+    private void closeOwned() {
+        closed = true;
+        if (pool != null) {
+            drain();
+        }
+        final PJOperation con;
+        synchronized (this) {
+            con = concurrent;
+        }
+        if (con != null && con != this) {
+            con.closeOwned();
+        }
+    }
+
     /**
      * A specialization of {@link PJOperation} for map projections.
      */
     static final class Projection extends PJOperation implements org.opengis.referencing.operation.Projection {
         Projection(final Identifier name, final PJCRS.Geographic source, final PJCRS.Projected target) {
-            super(name, source, target);
+            super(name, source, target, false);
         }
 
         /**
@@ -50,29 +50,6 @@ final class ResourcesLoader {
      */
     static final String PROJECTIONS_FILE = "projection-names.txt";
 
-    /**
-     * The map of axis orientations for each CRS codes.
-     * This map will be loaded from the {@value #AXIS_FILE} file when first needed.
-     */
-    private static Map<String,String> axisOrientations;
-
-    /**
-     * The Proj.4 names for OGC, EPSG or GeoTIFF projection names.
-     * Will be filled when first needed.
-     */
-    private static final Map<String,String> projectionNames = new HashMap<>();
-
-    /**
-     * The Proj.4 names for OGC, EPSG or GeoTIFF parameter names.
-     * Will be filled when first needed.
-     */
-    private static final Map<String,String> parameterNames = new HashMap<>();
-
-    /**
-     * Pool of identifiers, filled when first needed.
-     */
-    private static final Map<String, List<GenericName>> aliases = new HashMap<>();
-
     /**
      * The set of all operation methods, filled when first needed.
      */
@@ -85,20 +62,72 @@ final class ResourcesLoader {
     }
 
     /**
-     * Returns the axis orientation map. Callers shall not modify the returned map.
-     * The file format is the one created by {@link SupportedCodes#write()} in the
-     * test directory.
-     *
-     * @throws FactoryException if the resource file can not be loaded.
+     * The axis orientations for each CRS code, loaded from the {@value #AXIS_FILE} file
+     * when this class is first accessed. Class initialization is performed by the JVM in
+     * a thread-safe way, so no synchronization is needed after the table has been loaded.
      */
-    static synchronized Map<String,String> getAxisOrientations() throws FactoryException {
-        if (axisOrientations != null) {
-            return axisOrientations;
+    private static final class AxisTable {
+        /**
+         * The CRS codes in increasing order.
+         */
+        static final int[] codes;
+
+        /**
+         * Index in the {@link #orientations} array of the axis orientations for each code.
+         */
+        static final short[] index;
+
+        /**
+         * The distinct axis orientations declared in the resource file.
+         */
+        static final String[] orientations;
+
+        /**
+         * The exception thrown while reading the resource file, or {@code null} if none.
+         */
+        static final FactoryException failure;
+
+        static {
+            final List<String> labels = new ArrayList<>();
+            final Map<Integer,Integer> map = new TreeMap<>();
+            FactoryException error = null;
+            try {
+                load(labels, map);
+            } catch (IOException | RuntimeException e) {
+                error = new FactoryException("Can not read the \"" + AXIS_FILE + "\" resource", e);
+                labels.clear();
+                map.clear();
+            }
+            codes = new int[map.size()];
+            index = new short[codes.length];
+            int i = 0;
+            for (final Map.Entry<Integer,Integer> entry : map.entrySet()) {
+                codes[i] = entry.getKey();
+                index[i++] = entry.getValue().shortValue();
+            }
+            orientations = labels.toArray(new String[labels.size()]);
+            failure = error;
         }
-        IOException cause = null;
-        final InputStream in = ResourcesLoader.class.getResourceAsStream(AXIS_FILE);
-        if (in != null) try {
-            final Map<String,String> map = new LinkedHashMap<>(5000);
+
+        /**
+         * Do not allows instantiation of this class.
+         */
+        private AxisTable() {
+        }
+
+        /**
+         * Reads the resource file. The file format is the one created by {@link SupportedCodes#write()}
+         * in the test directory.
+         *
+         * @param  labels  where to add the distinct axis orientations.
+         * @param  map     where to add the index in {@code labels} for each code.
+         * @throws IOException if the resource file can not be read.
+         */
+        private static void load(final List<String> labels, final Map<Integer,Integer> map) throws IOException {
+            final InputStream in = ResourcesLoader.class.getResourceAsStream(AXIS_FILE);
+            if (in == null) {
+                throw new IOException("Resource not found.");
+            }
             try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
@@ -116,60 +145,254 @@ final class ResourcesLoader {
                         }
                         default: {
                             int s = line.indexOf(':');
-                            final String orientation = line.substring(0, s).trim();
+                            final Integer orientation = labels.size();
+                            labels.add(line.substring(0, s).trim());
                             do {
                                 final int p = s+1;
                                 s = line.indexOf(' ', p);
                                 final String code = (s >= 0) ? line.substring(p,s) : line.substring(p);
-                                map.put(code.trim(), orientation);
+                                map.put(Integer.valueOf(code.trim()), orientation);
                             } while (s >= 0);
                             break;
                         }
                     }
                 }
             }
-            return axisOrientations = map;
-        } catch (IOException e) {
-            cause = e;
         }
-        throw new FactoryException("Can not read the \"" + AXIS_FILE + "\" resource", cause);
+
+        /**
+         * Returns the index of the given code in the {@link #codes} array,
+         * or a negative value if the code is not an integer or is not found.
+         */
+        static int indexOf(final String code) {
+            final int value;
+            try {
+                value = Integer.parseInt(code.trim());
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+            return Arrays.binarySearch(codes, value);
+        }
+    }
+
+    /**
+     * Ensures that the table of axis orientations has been successfully loaded.
+     *
+     * @throws FactoryException if the resource file can not be loaded.
+     */
+    private static void checkAxisTable() throws FactoryException {
+        if (AxisTable.failure != null) {
+            throw AxisTable.failure;
+        }
+    }
+
+    /**
+     * Returns the axis orientations for the given CRS code, or {@code null} if none.
+     * This may be a comma-separated list if there is also a definition for the base CRS.
+     *
+     * @param  code  the CRS code, without authority.
+     * @return the axis orientations in Proj.4 syntax, or {@code null} if none.
+     * @throws FactoryException if the resource file can not be loaded.
+     */
+    static String getAxisOrientation(final String code) throws FactoryException {
+        checkAxisTable();
+        final int i = AxisTable.indexOf(code);
+        return (i >= 0) ? AxisTable.orientations[AxisTable.index[i]] : null;
     }
 
     /**
-     * Returns the mapping from projection/parameter names to Proj.4 names.
+     * Returns all CRS codes for which axis orientations are known, in increasing numerical order.
+     * The returned set is unmodifiable and does not duplicate the table content.
      *
+     * @return the CRS codes, without authority.
      * @throws FactoryException if the resource file can not be loaded.
      */
-    private static Map<String,String> getAliases(final boolean isParam) throws FactoryException {
-        final Map<String,String> map = isParam ? parameterNames : projectionNames;
-        synchronized (map) {
-            if (!map.isEmpty()) {
-                return map;
+    static Set<String> getAxisOrientationCodes() throws FactoryException {
+        checkAxisTable();
+        return new AbstractSet<String>() {
+            @Override public int size() {
+                return AxisTable.codes.length;
+            }
+
+            @Override public boolean contains(final Object code) {
+                return (code instanceof String) && AxisTable.indexOf((String) code) >= 0;
             }
-            IOException cause = null;
-            final String file = isParam ? PARAMETERS_FILE : PROJECTIONS_FILE;
+
+            @Override public Iterator<String> iterator() {
+                return new Iterator<String>() {
+                    private int i;
+
+                    @Override public boolean hasNext() {
+                        return i < AxisTable.codes.length;
+                    }
+
+                    @Override public String next() {
+                        if (i >= AxisTable.codes.length) {
+                            throw new NoSuchElementException();
+                        }
+                        return Integer.toString(AxisTable.codes[i++]);
+                    }
+                };
+            }
+        };
+    }
+
+    /**
+     * A bidirectional index between OGC, EPSG or GeoTIFF names and Proj.4 names.
+     * Lookups are case-insensitive in both directions.
+     */
+    private static final class AliasIndex {
+        /**
+         * The Proj.4 names (e.g. {@code "+lon_0"}) for each name in lower cases.
+         */
+        private final Map<String,String> projNames = new HashMap<>();
+
+        /**
+         * The aliases for each Proj.4 name in lower cases. Each list is in the order of the file.
+         */
+        private final Map<String, List<GenericName>> aliases = new HashMap<>();
+
+        /**
+         * The Proj.4 names as written in the file, in the order they appear.
+         */
+        private final List<String> names = new ArrayList<>();
+
+        /**
+         * Loads the index from the given resource file.
+         *
+         * @param  file  {@value #PARAMETERS_FILE} or {@value #PROJECTIONS_FILE}.
+         * @throws IOException if the resource file can not be read.
+         */
+        AliasIndex(final String file) throws IOException {
             final InputStream in = ResourcesLoader.class.getResourceAsStream(file);
-            if (in != null) try {
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
-                    String parameter = null;
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if ((line = line.trim()).isEmpty()) {
-                            continue;                                               // Skip empty lines.
+            if (in == null) {
+                throw new IOException("Resource not found.");
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, "UTF-8"))) {
+                String parameter = null;
+                List<GenericName> list = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if ((line = line.trim()).isEmpty()) {
+                        continue;                                               // Skip empty lines.
+                    }
+                    switch (line.charAt(0)) {
+                        case '#': {
+                            break;                                              // A line of comment.
+                        }
+                        case '+': {
+                            parameter = line;
+                            list = aliases.get(key(line));
+                            if (list == null) {
+                                list = new ArrayList<>();
+                                aliases.put(key(line), list);
+                                names.add(line);
+                            }
+                            break;
                         }
-                        switch (line.charAt(0)) {
-                            case '#': /* A line of comment */   break;
-                            case '+': parameter = line;         break;
-                            default:  map.put(line, parameter); break;
+                        default: {
+                            projNames.put(key(line), parameter);
+                            if (list != null) {
+                                list.add(new PJIdentifier(line));
+                            }
+                            break;
                         }
                     }
                 }
-                return map;
-            } catch (IOException e) {
-                cause = e;
             }
-            throw new FactoryException("Can not read the \"" + file + "\" resource", cause);
+            for (final Map.Entry<String, List<GenericName>> entry : aliases.entrySet()) {
+                final List<GenericName> list = entry.getValue();
+                entry.setValue(list.isEmpty() ? Collections.<GenericName>emptyList()
+                        : Collections.unmodifiableList(Arrays.asList(list.toArray(new GenericName[list.size()]))));
+            }
+        }
+
+        /**
+         * Returns the key to use in the maps for the given name.
+         */
+        private static String key(final String name) {
+            return name.toLowerCase(Locale.ROOT);
+        }
+
+        /**
+         * Returns the Proj.4 name for the given name, or {@code null} if none.
+         */
+        String getProjName(final String name) {
+            return projNames.get(key(name));
+        }
+
+        /**
+         * Returns the aliases of the given Proj.4 name, or an empty list if none.
+         */
+        List<GenericName> getAliases(final String projName) {
+            final List<GenericName> list = aliases.get(key(projName));
+            return (list != null) ? list : Collections.<GenericName>emptyList();
+        }
+
+        /**
+         * Returns all Proj.4 names, in the order they appear in the file.
+         */
+        List<String> getProjNames() {
+            return names;
+        }
+    }
+
+    /**
+     * The alias indexes, loaded from the {@value #PARAMETERS_FILE} and {@value #PROJECTIONS_FILE}
+     * files when this class is first accessed. Class initialization is performed by the JVM in a
+     * thread-safe way, so no synchronization is needed after the indexes have been loaded.
+     */
+    private static final class AliasTables {
+        /**
+         * The index of projection names, or {@code null} if it can not be loaded.
+         */
+        static final AliasIndex projections;
+
+        /**
+         * The index of parameter names, or {@code null} if it can not be loaded.
+         */
+        static final AliasIndex parameters;
+
+        /**
+         * The exception thrown while reading the resource files, or {@code null} if none.
+         */
+        static final FactoryException failure;
+
+        static {
+            AliasIndex proj = null, param = null;
+            String file = PROJECTIONS_FILE;
+            FactoryException error = null;
+            try {
+                proj  = new AliasIndex(file);
+                file  = PARAMETERS_FILE;
+                param = new AliasIndex(file);
+            } catch (IOException | RuntimeException e) {
+                error = new FactoryException("Can not read the \"" + file + "\" resource", e);
+            }
+            projections = proj;
+            parameters  = param;
+            failure     = error;
+        }
+
+        /**
+         * Do not allows instantiation of this class.
+         */
+        private AliasTables() {
+        }
+    }
+
+    /**
+     * Returns the index of projection or parameter names.
+     *
+     * @param  isParam  {@code true} for parameter names, or {@code false} for projection names.
+     * @throws FactoryException if the resource file can not be loaded.
+     */
+    private static AliasIndex getAliasIndex(final boolean isParam) throws FactoryException {
+        final AliasIndex index = isParam ? AliasTables.parameters : AliasTables.projections;
+        if (index == null) {
+            throw AliasTables.failure;
         }
+        return index;
     }
 
     /**
@@ -183,23 +406,23 @@ final class ResourcesLoader {
     static String getProjName(final GeneralParameterValue param, final boolean isParam)
             throws FactoryException
     {
-        return getProjName(param.getDescriptor(), getAliases(isParam));
+        return getProjName(param.getDescriptor(), getAliasIndex(isParam));
     }
 
     /**
-     * Returns the Proj.4 name for the given identified object, looking in the given map
+     * Returns the Proj.4 name for the given identified object, looking in the given index
      * of aliases. If no mapping is found, then the parameter name is returned unchanged.
      */
-    private static String getProjName(final IdentifiedObject descriptor, final Map<String, String> map)
+    private static String getProjName(final IdentifiedObject descriptor, final AliasIndex index)
             throws NoSuchIdentifierException
     {
         final String name = descriptor.getName().getCode();
-        String proj = map.get(name);
+        String proj = index.getProjName(name);
         if (proj == null) {
             // If the name is not recognized, try the alias (if any).
             // If no alias match, then return the name unchanged.
             for (final GenericName alias : descriptor.getAlias()) {
-                proj = map.get(alias.tip().toString());
+                proj = index.getProjName(alias.tip().toString());
                 if (proj != null) {
                     return proj;
                 }
@@ -217,37 +440,12 @@ final class ResourcesLoader {
      */
     static List<GenericName> getAliases(String name, final boolean isParam) throws FactoryException {
         // Replace the name by the Proj.4 name, if we find it.
-        final Map<String, String> map = getAliases(isParam);
-        final String projName = map.get(name);
+        final AliasIndex index = getAliasIndex(isParam);
+        final String projName = index.getProjName(name);
         if (projName != null) {
             name = projName;
         }
-        return getAliases(name, map);
-    }
-
-    /**
-     * Returns the list of aliases for the given Proj.4 name, or an empty list if none.
-     */
-    private static List<GenericName> getAliases(final String name, final Map<String,String> map) {
-        List<GenericName> list;
-        synchronized (aliases) {
-            list = aliases.get(name);
-            if (list == null) {
-                list = new ArrayList<>();
-                for (final Map.Entry<String, String> entry : map.entrySet()) {
-                    if (name.equalsIgnoreCase(entry.getValue())) {
-                        list.add(new PJIdentifier(entry.getKey()));
-                    }
-                }
-                if (list.isEmpty()) {
-                    list = Collections.emptyList();
-                } else {
-                    ((ArrayList<?>) list).trimToSize();
-                    list = Collections.unmodifiableList(list);
-                }
-            }
-        }
-        return list;
+        return index.getAliases(name);
     }
 
     /**
@@ -256,9 +454,9 @@ final class ResourcesLoader {
     static Set<OperationMethod> getMethods() throws FactoryException {
         synchronized (methods) {
             if (methods.isEmpty()) {
-                final Map<String, String> map = getAliases(false);
-                for (final String name : new HashSet<>(map.values())) {
-                    methods.add(new PJMethod(new PJIdentifier(SimpleCitation.PROJ4, name), getAliases(name, map)));
+                final AliasIndex index = getAliasIndex(false);
+                for (final String name : index.getProjNames()) {
+                    methods.add(new PJMethod(new PJIdentifier(SimpleCitation.PROJ4, name), index.getAliases(name)));
                 }
             }
         }
@@ -0,0 +1,153 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The Proj.4 wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.proj4;
+
+import java.util.Arrays;
+import java.io.Serializable;
+import org.opengis.referencing.operation.Matrix;
+
+
+/**
+ * A trivial implementation of {@link Matrix}, used for returning derivatives.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+final class SimpleMatrix implements Matrix, Serializable {
+    /**
+     * For cross-version compatibility.
+     */
+    private static final long serialVersionUID = -3870349823961376426L;
+
+    /**
+     * Number of columns.
+     */
+    private final int numCol;
+
+    /**
+     * The matrix elements. The number of elements shall be a multiple of the number of columns.
+     * The column index varies fastest.
+     */
+    private final double[] elements;
+
+    /**
+     * Creates a new matrix with the given elements.
+     *
+     * @param numCol    the number of columns.
+     * @param elements  the elements, where columns index varies fastest. This array is <strong>not</strong> cloned.
+     */
+    SimpleMatrix(final int numCol, final double[] elements) {
+        this.numCol   = numCol;
+        this.elements = elements;
+    }
+
+    /**
+     * Returns the number of rows in this matrix.
+     */
+    @Override
+    public int getNumRow() {
+        return elements.length / numCol;
+    }
+
+    /**
+     * Returns the number of columns in this matrix.
+     */
+    @Override
+    public int getNumCol() {
+        return numCol;
+    }
+
+    /**
+     * Retrieves the value at the specified row and column of this matrix.
+     */
+    @Override
+    public double getElement(final int row, final int column) {
+        if (column < 0 || column >= numCol) {
+            throw new IndexOutOfBoundsException("Invalid column index: " + column);
+        }
+        return elements[row*numCol + column];
+    }
+
+    /**
+     * Modifies the value at the specified row and column of this matrix.
+     */
+    @Override
+    public void setElement(final int row, final int column, final double value) {
+        if (column < 0 || column >= numCol) {
+            throw new IndexOutOfBoundsException("Invalid column index: " + column);
+        }
+        elements[row*numCol + column] = value;
+    }
+
+    /**
+     * Returns {@code true} if this matrix is an identity matrix.
+     */
+    @Override
+    public boolean isIdentity() {
+        if (elements.length != numCol*numCol) {
+            return false;
+        }
+        for (int i=0; i<elements.length; i++) {
+            if (elements[i] != ((i % (numCol+1)) == 0 ? 1 : 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns a clone of this matrix.
+     */
+    @Override
+    @SuppressWarnings("CloneDoesntCallSuperClone")      // Okay because this class is final.
+    public Matrix clone() {
+        return new SimpleMatrix(numCol, elements.clone());
+    }
+
+    /**
+     * Returns {@code true} if this matrix is equals to the given object.
+     */
+    @Override
+    public boolean equals(final Object object) {
+        if (object instanceof SimpleMatrix) {
+            final SimpleMatrix other = (SimpleMatrix) object;
+            return numCol == other.numCol && Arrays.equals(elements, other.elements);
+        }
+        return false;
+    }
+
+    /**
+     * Returns a hash code value for this matrix.
+     */
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(elements) ^ numCol;
+    }
+
+    /**
+     * Returns a string representation of this matrix, mostly for debugging purpose.
+     * This string representation may change in any future version.
+     */
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder(getClass().getSimpleName()).append('[');
+        for (int i=0; i<elements.length; i++) {
+            if (i != 0) {
+                buffer.append((i % numCol) == 0 ? "; " : ", ");
+            }
+            buffer.append(elements[i]);
+        }
+        return buffer.append(']').toString();
+    }
+}
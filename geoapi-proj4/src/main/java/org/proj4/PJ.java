@@ -17,7 +17,15 @@
  */
 package org.proj4;
 
+import java.util.Set;
 import java.util.Objects;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.PhantomReference;
+import java.nio.DoubleBuffer;
 
 
 /**
@@ -39,13 +47,19 @@ import java.util.Objects;
  * @version 3.1
  * @since   3.1
  */
-public class PJ {
+public class PJ implements AutoCloseable {
     /**
      * The maximal number of dimension accepted by the {@link #transform(PJ, int, double[], int, int)} method.
      * This upper limit is actually somewhat arbitrary. This limit exists mostly as a safety against potential misuse.
      */
     public static final int DIMENSION_MAX = 100;
 
+    /**
+     * Length of the temporary array used by {@link #transform(PJ, int, DoubleBuffer, int)}
+     * when the buffer is not backed by a Java array.
+     */
+    private static final int BUFFER_LENGTH = 4096;
+
     /**
      * Loads the {@literal Proj.4} library.
      */
@@ -60,6 +74,29 @@ public class PJ {
      */
     private final long ptr;
 
+    /**
+     * The queue where the garbage collector enqueues the {@link #tracker} of {@code PJ} objects
+     * reclaimed without having been closed. The native structure of those objects has been
+     * released by {@link #finalize()} before the tracker is enqueued.
+     */
+    private static final ReferenceQueue<PJ> DISPOSED = new ReferenceQueue<>();
+
+    /**
+     * The trackers of all {@code PJ} objects whose native structure has not yet been released.
+     */
+    private static final Set<Reference<PJ>> LIVE = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * Number of native structures allocated since this class has been loaded.
+     */
+    private static final AtomicLong ALLOCATION_COUNT = new AtomicLong();
+
+    /**
+     * A phantom reference to this {@code PJ} object, used for counting the native structures not yet released.
+     * This reference is a member of the {@link #LIVE} set until the native structure is released.
+     */
+    private final Reference<PJ> tracker;
+
     /**
      * Creates a new {@code PJ} structure from the given {@literal Proj.4} definition string.
      *
@@ -72,6 +109,7 @@ public class PJ {
         if (ptr == 0) {
             throw new IllegalArgumentException(definition);
         }
+        tracker = track(this);
     }
 
     /**
@@ -93,13 +131,58 @@ public class PJ {
         if (ptr == 0) {
             throw new IllegalArgumentException(crs.getLastError());
         }
+        tracker = track(this);
+    }
+
+    /**
+     * Registers the given newly allocated object in the set of live {@code PJ} objects.
+     * This method should be invoked by the constructors only.
+     */
+    private static Reference<PJ> track(final PJ pj) {
+        purge();
+        final Reference<PJ> ref = new PhantomReference<>(pj, DISPOSED);
+        LIVE.add(ref);
+        ALLOCATION_COUNT.incrementAndGet();
+        return ref;
+    }
+
+    /**
+     * Removes from the set of live objects the {@code PJ} objects reclaimed by the garbage collector.
+     */
+    private static void purge() {
+        Reference<? extends PJ> ref;
+        while ((ref = DISPOSED.poll()) != null) {
+            LIVE.remove(ref);
+        }
+    }
+
+    /**
+     * Returns the number of {@code PJ} native structures which have not yet been released,
+     * either by {@link #close()} or by the garbage collector. This is an approximation of
+     * the native memory footprint, since {@literal Proj.4} does not report the size of its
+     * structures.
+     *
+     * @return number of native structures not yet released.
+     */
+    public static int getLiveCount() {
+        purge();
+        return LIVE.size();
+    }
+
+    /**
+     * Returns the number of {@code PJ} native structures allocated since this class has been loaded.
+     *
+     * @return number of native structures allocated.
+     */
+    public static long getAllocationCount() {
+        return ALLOCATION_COUNT.get();
     }
 
     /**
      * Allocates a PJ native data structure and returns the pointer to it. This method should be
      * invoked by the constructor only, and the return value <strong>must</strong> be assigned
-     * to the {@link #ptr} field. The allocated structure is released by the {@link #finalize()}
-     * method.
+     * to the {@link #ptr} field. The allocated structure is released by the {@link #close()}
+     * or {@link #finalize()} method.
      *
      * @param  definition  the Proj.4 definition string.
      * @return a pointer to the PJ native data structure, or 0 if the operation failed.
@@ -110,7 +193,7 @@ public class PJ {
      * Allocates a PJ native data structure for the base geographic CRS of the given CRS, and
      * returns the pointer to it. This method should be invoked by the constructor only, and
      * the return value <strong>must</strong> be assigned to the {@link #ptr} field.
-     * The allocated structure is released by the {@link #finalize()} method.
+     * The allocated structure is released by the {@link #close()} or {@link #finalize()} method.
      *
      * @param  projected  the CRS from which to derive the base geographic CRS.
      * @return a pointer to the PJ native data structure, or 0 if the operation failed.
@@ -257,6 +340,59 @@ public class PJ {
     public native void transform(PJ target, int dimension, double[] coordinates, int offset, int numPts)
             throws PJException;
 
+    /**
+     * Transforms in-place the coordinates in the given buffer. This method performs the same work than
+     * {@link #transform(PJ, int, double[], int, int)}, but with coordinates stored in a buffer starting
+     * at the buffer {@linkplain DoubleBuffer#position() position}. The buffer position is not modified.
+     * Coordinates stored in a {@link java.nio.ByteBuffer} can be transformed by invoking this method
+     * with the {@link java.nio.ByteBuffer#asDoubleBuffer()} view.
+     *
+     * <p>If the buffer is backed by an array, the coordinates are transformed directly in that array.
+     * Otherwise (for example with direct buffers over memory-mapped files), the coordinates are copied
+     * by chunks of bounded size in a temporary array.</p>
+     *
+     * @param  target       the target CRS.
+     * @param  dimension    the dimension of each coordinate value. Must be in the [2-{@value #DIMENSION_MAX}] range.
+     * @param  coordinates  the coordinates to transform, as a sequence of (<var>x</var>,<var>y</var>,&lt;<var>z</var>&gt;,…) tuples.
+     * @param  numPts       number of points to transform.
+     * @throws NullPointerException if the {@code target} or {@code coordinates} argument is null.
+     * @throws IllegalArgumentException if the {@code dimension} argument is out of range.
+     * @throws IndexOutOfBoundsException if the buffer does not have {@code dimension} × {@code numPts} remaining values.
+     * @throws java.nio.ReadOnlyBufferException if the given buffer is read-only.
+     * @throws PJException if the operation failed for another reason (provided by Proj.4).
+     */
+    public void transform(final PJ target, final int dimension, final DoubleBuffer coordinates, final int numPts)
+            throws PJException
+    {
+        Objects.requireNonNull(target);
+        if (dimension < 2 || dimension > DIMENSION_MAX) {
+            throw new IllegalArgumentException("Illegal number of dimensions: " + dimension);
+        }
+        if (numPts < 0 || (long) dimension * numPts > coordinates.remaining()) {
+            throw new IndexOutOfBoundsException("Illegal number of points: " + numPts);
+        }
+        if (coordinates.hasArray()) {
+            transform(target, dimension, coordinates.array(), coordinates.arrayOffset() + coordinates.position(), numPts);
+            return;
+        }
+        final int chunk = Math.min(numPts, Math.max(1, BUFFER_LENGTH / dimension));
+        final double[] buffer = new double[chunk * dimension];
+        final DoubleBuffer view = coordinates.duplicate();
+        int position = coordinates.position();
+        int remaining = numPts;
+        while (remaining != 0) {
+            final int n = Math.min(chunk, remaining);
+            final int length = n * dimension;
+            view.position(position);
+            view.get(buffer, 0, length);
+            transform(target, dimension, buffer, 0, n);
+            view.position(position);
+            view.put(buffer, 0, length);
+            position  += length;
+            remaining -= n;
+        }
+    }
+
     /**
      * Returns a description of the last error that occurred, or {@code null} if none.
      *
@@ -273,8 +409,35 @@ public class PJ {
     public native String toString();
 
     /**
-     * Deallocates the native PJ data structure.
-     * This method should be invoked exactly once, only by the garbage collector,
+     * Returns {@code true} if the native structure has been released by {@link #close()}.
+     * A closed {@code PJ} object can not be used anymore.
+     *
+     * @return whether this object has been closed.
+     */
+    public boolean isClosed() {
+        return !LIVE.contains(tracker);
+    }
+
+    /**
+     * Releases the native PJ data structure immediately instead of waiting for the garbage collector.
+     * After this method call, this {@code PJ} object can not be used anymore. Invoking this method
+     * many times has no effect after the first call.
+     *
+     * <p>This method shall not be invoked while another thread is using this object.</p>
+     */
+    @Override
+    @SuppressWarnings("FinalizeCalledExplicitly")
+    public void close() {
+        if (LIVE.remove(tracker)) {
+            tracker.clear();
+            finalize();
+        }
+    }
+
+    /**
+     * Deallocates the native PJ data structure. This method is invoked by the garbage collector
+     * if {@link #close()} has not been invoked. The native code sets the {@link #ptr} value to 0,
+     * so this method does nothing if the structure has already been released.
      */
     @Override
     @SuppressWarnings("FinalizeDeclaration")
@@ -0,0 +1,52 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The Proj.4 wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.proj4;
+
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link Cache} class. This test does not require the {@literal Proj.4} native library.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public class CacheTest {
+    /**
+     * Tests the hits, misses and evictions counts.
+     */
+    @Test
+    public void testStatistics() {
+        final Cache<String,String> cache = new Cache<>(2);
+        final String a = "A", b = "B", c = "C";
+        assertNull(cache.get("a"));
+        assertSame(a, cache.putIfAbsent("a", a));
+        assertSame(a, cache.putIfAbsent("a", new String("A")));
+        assertSame(a, cache.get("a"));
+        assertSame(b, cache.putIfAbsent("b", b));
+        assertSame(a, cache.get("a"));                  // Make "b" the least recently used entry.
+        assertSame(c, cache.putIfAbsent("c", c));       // Shall evict "b".
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        assertSame(c, cache.get("c"));
+
+        final Map<String,Long> stats = cache.statistics();
+        assertEquals("hits",      Long.valueOf(4), stats.get("hits"));
+        assertEquals("misses",    Long.valueOf(2), stats.get("misses"));
+        assertEquals("evictions", Long.valueOf(1), stats.get("evictions"));
+        assertEquals("size",      Long.valueOf(2), stats.get("size"));
+    }
+}
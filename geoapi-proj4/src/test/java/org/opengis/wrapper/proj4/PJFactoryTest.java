@@ -13,8 +13,22 @@
  */
 package org.opengis.wrapper.proj4;
 
+import java.util.List;
+import java.util.Random;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.opengis.util.FactoryException;
+import org.opengis.parameter.ParameterValueGroup;
+import org.opengis.referencing.crs.CoordinateReferenceSystem;
 import org.opengis.referencing.crs.GeographicCRS;
+import org.opengis.referencing.crs.ProjectedCRS;
+import org.opengis.referencing.operation.CoordinateOperation;
+import org.opengis.referencing.operation.Matrix;
+import org.opengis.referencing.operation.MathTransform;
+import org.opengis.referencing.operation.TransformException;
+import org.proj4.PJ;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -43,4 +57,304 @@ public class PJFactoryTest {
         final PJDatum pj = (PJDatum) crs.getDatum();
         assertArrayEquals(new char[] {'n', 'e', 'u'}, pj.getAxisDirections());
     }
+
+    /**
+     * Tests that closing a CRS shared by the cache has no effect, while closing a CRS
+     * created outside the cache releases its native structure immediately.
+     *
+     * @throws FactoryException if an error occurred while creating the CRS objects.
+     */
+    @Test
+    public void testCloseShared() throws FactoryException {
+        final PJFactory.EPSG factory = new PJFactory.EPSG();
+        final PJCRS shared = (PJCRS) factory.createProjectedCRS("EPSG:3395");
+        shared.close();
+        assertFalse(shared.pj.isClosed());
+        assertSame(shared, factory.createProjectedCRS("EPSG:3395"));
+        final PJCRS base = (PJCRS) ((ProjectedCRS) shared).getBaseCRS();
+        base.close();
+        assertFalse(base.pj.isClosed());
+
+        final PJCRS owned = (PJCRS) PJFactory.createCRS(null, null, "+proj=latlong +datum=WGS84", 2);
+        owned.close();
+        assertTrue(owned.pj.isClosed());
+    }
+
+    /**
+     * Tests that operations between CRS shared by the cache use per-thread structures
+     * even when created by the default operation factory.
+     *
+     * @throws FactoryException if an error occurred while creating the CRS objects.
+     */
+    @Test
+    public void testOperationOnSharedCRS() throws FactoryException {
+        final ProjectedCRS crs = new PJFactory.EPSG().createProjectedCRS("EPSG:3395");
+        final PJFactory.Operation factory = new PJFactory.Operation();
+        assertTrue(((PJOperation) factory.createOperation(crs.getBaseCRS(), crs)).perThread);
+        assertTrue(((PJOperation) crs.getConversionFromBase()).perThread);
+
+        final CoordinateReferenceSystem owned = PJFactory.createCRS(null, null, "+proj=latlong +datum=WGS84", 2);
+        assertTrue (((PJOperation) factory.createOperation(owned, crs)).perThread);
+        assertFalse(((PJOperation) factory.createOperation(owned, owned)).perThread);
+    }
+
+    /**
+     * Tests the derivative of the EPSG:3395 "World Mercator" projection on the equator.
+     * Expected values are the lengths of one degree of longitude and latitude at that place.
+     *
+     * @throws FactoryException if an error occurred while creating the CRS objects.
+     * @throws TransformException if an error occurred while computing the derivative.
+     */
+    @Test
+    public void testDerivative() throws FactoryException, TransformException {
+        final ProjectedCRS crs = new PJFactory.EPSG().createProjectedCRS("EPSG:3395");
+        final CoordinateOperation op = new PJFactory.Operation().createOperation(crs.getBaseCRS(), crs);
+        final Matrix derivative = op.getMathTransform().derivative(new SimpleDirectPosition(2));
+        assertEquals(0,         derivative.getElement(0, 0), 1E-6);     // ∂E/∂φ
+        assertEquals(111319.49, derivative.getElement(0, 1), 1E-2);     // ∂E/∂λ
+        assertEquals(110574.39, derivative.getElement(1, 0), 1E-2);     // ∂N/∂φ
+        assertEquals(0,         derivative.getElement(1, 1), 1E-6);     // ∂N/∂λ
+
+        final double[] elements = new double[8];
+        PJFactory.derivatives(op, new double[4], 2, elements);
+        for (int i=0; i<elements.length; i++) {
+            assertEquals(derivative.getElement((i >> 1) & 1, i & 1), elements[i], 1E-9);
+        }
+    }
+
+    /**
+     * Tests the concatenation of an affine transform with a map projection.
+     * The result shall be the same than applying the two transforms in sequence.
+     *
+     * @throws FactoryException if an error occurred while creating the transforms.
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testConcatenatedTransform() throws FactoryException, TransformException {
+        final ProjectedCRS crs = new PJFactory.EPSG().createProjectedCRS("EPSG:3395");
+        final PJFactory.Transform factory = new PJFactory.Transform();
+        final MathTransform affine = factory.createAffineTransform(new SimpleMatrix(3, new double[] {
+            0.5, 0,   -45,
+            0,  -0.5,  30,
+            0,   0,    1
+        }));
+        final MathTransform projection = new PJFactory.Operation().createOperation(crs.getBaseCRS(), crs).getMathTransform();
+        final MathTransform concatenated = factory.createConcatenatedTransform(affine, projection);
+        final double[] source   = {10, 20, 30, 40, 50, 60};
+        final double[] expected = new double[source.length];
+        affine.transform(source, 0, expected, 0, 3);
+        projection.transform(expected, 0, expected, 0, 3);
+        final double[] actual = new double[source.length];
+        concatenated.transform(source, 0, actual, 0, 3);
+        assertArrayEquals(expected, actual, 1E-6);
+    }
+
+    /**
+     * Returns random two-dimensional geographic coordinates in degrees. All ordinate values are
+     * in the [-80 … 80]° range, so they are valid for both (λ,φ) and (φ,λ) axis orders.
+     */
+    private static double[] randomGeographic(final Random random, final int numPts) {
+        final double[] coordinates = new double[numPts * 2];
+        for (int i=0; i<coordinates.length; i++) {
+            coordinates[i] = random.nextDouble() * 160 - 80;
+        }
+        return coordinates;
+    }
+
+    /**
+     * Tests transformations between CRS having different number of dimensions, which are executed
+     * by chunks through a temporary buffer. Missing <var>z</var> values shall be 0 and other missing
+     * values shall be NaN. The number of points is large enough for requiring more than one chunk.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testDimensionChange() throws TransformException {
+        final CoordinateReferenceSystem geographic2D = PJFactory.createCRS(null, null, "+proj=latlong +datum=WGS84", 2);
+        final CoordinateReferenceSystem geographic3D = PJFactory.createCRS(null, null, "+proj=latlong +datum=WGS84", 3);
+        final CoordinateReferenceSystem geocentric3D = PJFactory.createCRS(null, null, "+proj=geocent +datum=WGS84", 3);
+        final CoordinateReferenceSystem geocentric4D = PJFactory.createCRS(null, null, "+proj=geocent +datum=WGS84", 4);
+        final int numPts = 1500;
+        final double[] source = randomGeographic(new Random(718293465), numPts);
+        /*
+         * Expected values are computed by the three-dimensional operation with explicit z = 0,
+         * which transforms the coordinates in-place without temporary buffer.
+         */
+        final double[] expected = new double[numPts * 3];
+        for (int p=0; p<numPts; p++) {
+            System.arraycopy(source, p*2, expected, p*3, 2);
+        }
+        PJFactory.createOperation(null, geographic3D, geocentric3D).getMathTransform()
+                .transform(expected, 0, expected, 0, numPts);
+
+        final double[] actual3D = new double[numPts * 3];
+        PJFactory.createOperation(null, geographic2D, geocentric3D).getMathTransform()
+                .transform(source, 0, actual3D, 0, numPts);
+        assertArrayEquals(expected, actual3D, 1E-6);
+
+        final double[] actual4D = new double[numPts * 4];
+        PJFactory.createOperation(null, geographic2D, geocentric4D).getMathTransform()
+                .transform(source, 0, actual4D, 0, numPts);
+        for (int p=0; p<numPts; p++) {
+            for (int i=0; i<3; i++) {
+                assertEquals(expected[p*3 + i], actual4D[p*4 + i], 1E-6);
+            }
+            assertTrue(Double.isNaN(actual4D[p*4 + 3]));
+        }
+        /*
+         * Inverse operation, which discards the z values.
+         */
+        final double[] back = new double[numPts * 2];
+        PJFactory.createOperation(null, geocentric3D, geographic2D).getMathTransform()
+                .transform(expected, 0, back, 0, numPts);
+        assertArrayEquals(source, back, 1E-8);
+    }
+
+    /**
+     * Tests transformations between CRS having different number of dimensions when the source and
+     * destination regions overlap in the same array. The tested offsets require ascending iteration,
+     * descending iteration and a copy of the source coordinates respectively.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testOverlappingDimensionChange() throws TransformException {
+        final MathTransform tr = PJFactory.createOperation(null,
+                PJFactory.createCRS(null, null, "+proj=latlong +datum=WGS84", 2),
+                PJFactory.createCRS(null, null, "+proj=geocent +datum=WGS84", 3)).getMathTransform();
+        final int numPts = 1500;                            // More than one chunk of 4096/3 points.
+        final double[] source = randomGeographic(new Random(502938174), numPts);
+        final double[] expected = new double[numPts * 3];
+        tr.transform(source, 0, expected, 0, numPts);
+        final int[][] offsets = {
+            {numPts, 0},                                    // Ascending order.
+            {0,      0},                                    // Descending order.
+            {1000,   0}                                     // Copy of source coordinates.
+        };
+        assertEquals(+1, PJOperation.iterationOrder(offsets[0][0], 2, offsets[0][1], 3, numPts));
+        assertEquals(-1, PJOperation.iterationOrder(offsets[1][0], 2, offsets[1][1], 3, numPts));
+        assertEquals( 0, PJOperation.iterationOrder(offsets[2][0], 2, offsets[2][1], 3, numPts));
+        for (final int[] offset : offsets) {
+            final int srcOff = offset[0];
+            final int dstOff = offset[1];
+            final double[] data = new double[Math.max(srcOff + numPts*2, dstOff + numPts*3)];
+            System.arraycopy(source, 0, data, srcOff, source.length);
+            tr.transform(data, srcOff, data, dstOff, numPts);
+            for (int i=0; i<expected.length; i++) {
+                assertEquals(expected[i], data[dstOff + i], 1E-6);
+            }
+        }
+    }
+
+    /**
+     * Tests the concurrent use of an operation in per-thread mode, then the release of its
+     * {@literal Proj.4} structures. The operation shall still be usable after it has been closed.
+     *
+     * @throws Exception if an error occurred while creating or using the operation.
+     */
+    @Test
+    public void testPerThread() throws Exception {
+        final ProjectedCRS crs = new PJFactory.EPSG().createProjectedCRS("EPSG:3395");
+        final CoordinateOperation op = new PJFactory.Operation(true).createOperation(crs.getBaseCRS(), crs);
+        final MathTransform tr = op.getMathTransform();
+        final int numPts = 1000;
+        final double[] source = randomGeographic(new Random(384756102), numPts);
+        final double[] expected = new double[source.length];
+        new PJFactory.Operation().createOperation(crs.getBaseCRS(), crs).getMathTransform()
+                .transform(source, 0, expected, 0, numPts);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<double[]>> results = new ArrayList<>();
+            for (int i=0; i<8; i++) {
+                results.add(executor.submit(() -> {
+                    final double[] actual = new double[source.length];
+                    for (int r=0; r<10; r++) {
+                        tr.transform(source, 0, actual, 0, numPts);
+                    }
+                    return actual;
+                }));
+            }
+            for (final Future<double[]> result : results) {
+                assertArrayEquals(expected, result.get(), 1E-6);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        final int count = PJ.getLiveCount();
+        ((AutoCloseable) op).close();
+        assertTrue("Pooled structures shall be released.", PJ.getLiveCount() < count);
+
+        final double[] actual = new double[source.length];
+        tr.transform(source, 0, actual, 0, numPts);
+        assertArrayEquals(expected, actual, 1E-6);
+    }
+
+    /**
+     * Tests {@link PJFactory#parallelTransform(CoordinateOperation, double[], double[], int)}
+     * with enough points for splitting the work in many tasks, both with distinct arrays and in-place.
+     *
+     * @throws Exception if an error occurred while creating or using the operation.
+     */
+    @Test
+    public void testParallelTransform() throws Exception {
+        final ProjectedCRS crs = new PJFactory.EPSG().createProjectedCRS("EPSG:3395");
+        final CoordinateOperation op = new PJFactory.Operation().createOperation(crs.getBaseCRS(), crs);
+        final int numPts = 5 * 8192 + 3;                    // Many tasks of at least 8192 points.
+        final double[] source = randomGeographic(new Random(910283746), numPts);
+        final double[] expected = new double[source.length];
+        op.getMathTransform().transform(source, 0, expected, 0, numPts);
+
+        final double[] actual = new double[source.length];
+        PJFactory.parallelTransform(op, source, actual, numPts);
+        assertArrayEquals(expected, actual, 1E-6);
+
+        final double[] data = source.clone();
+        PJFactory.parallelTransform(op, data, data, numPts);
+        assertArrayEquals(expected, data, 1E-6);
+        ((AutoCloseable) op).close();
+    }
+
+    /**
+     * Tests the cache of transforms created from parameter values.
+     * The same parameters declared in a different order shall give the same transform.
+     *
+     * @throws FactoryException if an error occurred while creating the transforms.
+     */
+    @Test
+    public void testParameterizedTransformCache() throws FactoryException {
+        final PJFactory.Transform factory = new PJFactory.Transform();
+        final ParameterValueGroup p1 = factory.getDefaultParameters("Transverse_Mercator");
+        p1.parameter("central_meridian").setValue(3.0);
+        p1.parameter("scale_factor").setValue(0.9996);
+        p1.parameter("false_easting").setValue(500000.0);
+        final ParameterValueGroup p2 = factory.getDefaultParameters("Transverse_Mercator");
+        p2.parameter("false_easting").setValue(500000.0);
+        p2.parameter("central_meridian").setValue(3.0);
+        p2.parameter("scale_factor").setValue(0.9996);
+        final MathTransform t1 = factory.createParameterizedTransform(p1);
+        assertSame(t1, factory.createParameterizedTransform(p2));
+        assertTrue("Shared transforms shall be usable concurrently.", ((PJOperation) t1).perThread);
+
+        p2.parameter("central_meridian").setValue(9.0);
+        assertNotSame(t1, factory.createParameterizedTransform(p2));
+    }
+
+    /**
+     * Tests the keys used by the cache of transforms. Definitions which differ only by the order
+     * of parameters after {@code "+proj"}, or by the amount of spaces, shall give the same key.
+     * This test does not require the {@literal Proj.4} native library.
+     */
+    @Test
+    public void testCanonical() {
+        final String key = PJFactory.Transform.canonical("Transverse_Mercator",
+                "+proj=tmerc +lon_0=3.0 +k=0.9996 +x_0=500000.0");
+        assertEquals("Transverse_Mercator +proj=tmerc +k=0.9996 +lon_0=3.0 +x_0=500000.0", key);
+        assertEquals(key, PJFactory.Transform.canonical("Transverse_Mercator",
+                " +proj=tmerc  +x_0=500000.0 +k=0.9996 +lon_0=3.0 "));
+        assertNotEquals(key, PJFactory.Transform.canonical("Transverse_Mercator",
+                "+proj=tmerc +lon_0=9.0 +k=0.9996 +x_0=500000.0"));
+        assertNotEquals(key, PJFactory.Transform.canonical("Other",
+                "+proj=tmerc +lon_0=3.0 +k=0.9996 +x_0=500000.0"));
+    }
 }
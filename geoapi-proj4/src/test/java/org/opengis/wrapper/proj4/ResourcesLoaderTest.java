@@ -0,0 +1,76 @@
+/*
+ *    GeoAPI - Java interfaces for OGC/ISO standards
+ *    http://www.geoapi.org
+ *
+ *    This file is hereby placed into the Public Domain.
+ *    This means anyone is free to do whatever they wish with this file.
+ *
+ *    The Proj.4 wrappers are provided as code examples, in the hope to facilitate
+ *    GeoAPI implementations backed by other libraries. Implementers can take this
+ *    source code and use it for any purpose, commercial or non-commercial, copyrighted
+ *    or open-source, with no legal obligation to acknowledge the borrowing/copying
+ *    in any way.
+ */
+package org.opengis.wrapper.proj4;
+
+import java.util.Set;
+import java.util.List;
+import org.junit.Test;
+import org.opengis.util.GenericName;
+import org.opengis.util.FactoryException;
+
+import static org.junit.Assert.*;
+
+
+/**
+ * Tests the {@link ResourcesLoader} class. This test does not require the {@literal Proj.4} native library.
+ *
+ * @version 3.1
+ * @since   3.1
+ */
+public class ResourcesLoaderTest {
+    /**
+     * Tests {@link ResourcesLoader#getAxisOrientation(String)} and
+     * {@link ResourcesLoader#getAxisOrientationCodes()}.
+     *
+     * @throws FactoryException if the resource file can not be loaded.
+     */
+    @Test
+    public void testAxisOrientations() throws FactoryException {
+        assertEquals("ne",    ResourcesLoader.getAxisOrientation("4326"));
+        assertEquals("ne",    ResourcesLoader.getAxisOrientation(" 4326 "));
+        assertEquals("en,ne", ResourcesLoader.getAxisOrientation("2000"));
+        assertNull(ResourcesLoader.getAxisOrientation("1"));
+        assertNull(ResourcesLoader.getAxisOrientation("WGS84"));
+
+        final Set<String> codes = ResourcesLoader.getAxisOrientationCodes();
+        assertTrue (codes.contains("4326"));
+        assertFalse(codes.contains("1"));
+        int previous = Integer.MIN_VALUE, count = 0;
+        for (final String code : codes) {
+            final int value = Integer.parseInt(code);
+            assertTrue(code, value > previous);
+            previous = value;
+            count++;
+        }
+        assertEquals(codes.size(), count);
+    }
+
+    /**
+     * Tests {@link ResourcesLoader#getAliases(String, boolean)} using the Proj.4 name
+     * and names in different cases.
+     *
+     * @throws FactoryException if the resource file can not be loaded.
+     */
+    @Test
+    public void testAliases() throws FactoryException {
+        final List<GenericName> aliases = ResourcesLoader.getAliases("+lon_0", true);
+        assertEquals("Longitude of projection center", aliases.get(0).toString());
+        assertTrue(aliases.toString(), aliases.toString().contains("central_meridian"));
+        assertSame(aliases, ResourcesLoader.getAliases("central_meridian", true));
+        assertSame(aliases, ResourcesLoader.getAliases("CENTRAL_MERIDIAN", true));
+        assertSame(aliases, ResourcesLoader.getAliases("+LON_0", true));
+        assertTrue(ResourcesLoader.getAliases("No such parameter", true).isEmpty());
+        assertFalse(ResourcesLoader.getAliases("Transverse_Mercator", false).isEmpty());
+    }
+}
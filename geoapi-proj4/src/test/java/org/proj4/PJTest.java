@@ -13,6 +13,8 @@
  */
 package org.proj4;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
 import org.opengis.referencing.operation.TransformException;
 
 import org.junit.*;
@@ -86,6 +88,43 @@ public class PJTest {
         pj.transform(pj, 2, new double[5], 2, 2);
     }
 
+    /**
+     * Tests the transformation of coordinates in a direct buffer. The result shall be the same
+     * than the transformation of the same coordinates in a Java array.
+     *
+     * @throws TransformException if an error occurred while transforming the coordinates.
+     */
+    @Test
+    public void testTransformDirectBuffer() throws TransformException {
+        final PJ source = new PJ("+proj=latlong +datum=WGS84");
+        final PJ target = new PJ("+init=epsg:3395");
+        final double[] expected = {10, 20, 15, 25, -30, 40};
+        final DoubleBuffer buffer = ByteBuffer.allocateDirect(Double.BYTES * (expected.length + 1)).asDoubleBuffer();
+        buffer.put(Double.NaN).put(expected).position(1);
+        source.transform(target, 2, expected, 0, 3);
+        source.transform(target, 2, buffer, 3);
+        assertEquals("position", 1, buffer.position());
+        final double[] actual = new double[expected.length];
+        buffer.get(actual);
+        assertArrayEquals(expected, actual, 1E-9);
+    }
+
+    /**
+     * Tests the explicit release of native resources and the count of live objects.
+     */
+    @Test
+    public void testClose() {
+        final PJ pj = new PJ("+proj=latlong +datum=WGS84");
+        final int count = PJ.getLiveCount();
+        assertFalse(pj.isClosed());
+        pj.close();
+        assertTrue(pj.isClosed());
+        assertEquals(count - 1, PJ.getLiveCount());
+        assertNull(pj.getType());
+        pj.close();                 // Shall have no effect.
+        assertEquals(count - 1, PJ.getLiveCount());
+    }
+
     /**
      * Tests a method that returns NaN. The native code is expected to returns the
      * {@link java.lang.Double#NaN} constant, because not all C/C++ compiler define